@@ -1,7 +1,9 @@
 package autocomplete;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Suggest exact-character prefix matches for any query {@link CharSequence}.
@@ -10,6 +12,8 @@ import java.util.List;
  * @see SequentialSearchAutocomplete
  * @see BinarySearchAutocomplete
  * @see TernarySearchTreeAutocomplete
+ * @see PackedScanAutocomplete
+ * @see FrontCodedAutocomplete
  */
 public interface Autocomplete {
     /**
@@ -26,6 +30,47 @@ public interface Autocomplete {
      */
     List<CharSequence> allMatches(CharSequence prefix);
 
+    /**
+     * Returns at most {@code limit} autocompletion terms that match the given prefix, skipping the first
+     * {@code offset} matches in lexicographic order. Useful for paging through large result sets.
+     *
+     * @param prefix search query.
+     * @param offset number of matches to skip.
+     * @param limit  maximum number of matches to return.
+     * @return the requested page of matches in lexicographic order.
+     * @throws IllegalArgumentException if offset or limit is negative.
+     */
+    default List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+        }
+        List<CharSequence> matches = allMatches(prefix);
+        if (matches == null || offset >= matches.size()) {
+            return new ArrayList<>();
+        }
+        matches.sort(CharSequence::compare);
+        int end = (int) Math.min(matches.size(), (long) offset + limit);
+        return new ArrayList<>(matches.subList(offset, end));
+    }
+
+    /**
+     * Returns all autocompletion terms that match each of the given prefixes. Prefixes are answered together in sorted
+     * order and split across worker threads.
+     *
+     * @param prefixes search queries.
+     * @return a map from each distinct prefix to its matches, ordered by prefix.
+     * @throws IllegalArgumentException if any prefix is null.
+     */
+    default Map<CharSequence, List<CharSequence>> allMatchesBatch(Collection<? extends CharSequence> prefixes) {
+        return BatchQuery.run(prefixes, sorted -> {
+            List<List<CharSequence>> results = new ArrayList<>(sorted.size());
+            for (CharSequence prefix : sorted) {
+                results.add(allMatches(prefix));
+            }
+            return results;
+        });
+    }
+
     /**
      * Returns true if and only if the given term matches the given prefix.
      *
@@ -34,10 +79,15 @@ public interface Autocomplete {
      * @return true if and only if the given term matches the given prefix.
      */
     static boolean isPrefixOf(CharSequence prefix, CharSequence term) {
-        if (prefix.length() <= term.length()) {
-            CharSequence part = term.subSequence(0, prefix.length());
-            return CharSequence.compare(prefix, part) == 0;
+        if (prefix.length() > term.length()) {
+            return false;
+        }
+        // Compare in place rather than through subSequence, which allocates for every term scanned.
+        for (int i = 0; i < prefix.length(); i += 1) {
+            if (prefix.charAt(i) != term.charAt(i)) {
+                return false;
+            }
         }
-        return false;
+        return true;
     }
 }
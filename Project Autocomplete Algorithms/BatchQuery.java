@@ -0,0 +1,81 @@
+package autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+/**
+ * Answers a batch of prefix queries by sorting the prefixes and splitting them into contiguous chunks that are swept
+ * in parallel. Sorted chunks let implementations reuse work between neighboring prefixes.
+ *
+ * @see Autocomplete#allMatchesBatch(Collection)
+ */
+final class BatchQuery {
+    /**
+     * Minimum number of prefixes per chunk before the batch is split across worker threads.
+     */
+    private static final int MIN_CHUNK = 64;
+
+    private BatchQuery() {
+    }
+
+    /**
+     * Answers a chunk of sorted, distinct, non-empty prefixes.
+     */
+    @FunctionalInterface
+    interface Sweep {
+        /**
+         * Returns the matches for each prefix in the same order as the given chunk.
+         *
+         * @param sorted prefixes in lexicographic order without duplicates.
+         * @return a list of matches for each prefix, in order.
+         */
+        List<List<CharSequence>> answer(List<CharSequence> sorted);
+    }
+
+    /**
+     * Sorts and deduplicates the prefixes, runs the sweep over parallel chunks, and collects the results.
+     *
+     * @param prefixes search queries.
+     * @param sweep    the implementation-specific chunk sweep.
+     * @return a map from each distinct prefix to its matches, ordered by prefix.
+     */
+    static Map<CharSequence, List<CharSequence>> run(Collection<? extends CharSequence> prefixes, Sweep sweep) {
+        NavigableMap<CharSequence, List<CharSequence>> results = new TreeMap<>(CharSequence::compare);
+        TreeSet<CharSequence> distinct = new TreeSet<>(CharSequence::compare);
+        for (CharSequence prefix : prefixes) {
+            if (prefix == null) {
+                throw new IllegalArgumentException("null prefix");
+            } else if (prefix.length() == 0) {
+                results.put(prefix, new ArrayList<>());
+            } else {
+                distinct.add(prefix);
+            }
+        }
+        List<CharSequence> sorted = new ArrayList<>(distinct);
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        int chunks = Math.max(1, Math.min(parallelism * 4, sorted.size() / MIN_CHUNK));
+        int chunkSize = (sorted.size() + chunks - 1) / chunks;
+        List<List<List<CharSequence>>> answers = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c += 1) {
+            answers.add(null);
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int begin = Math.min(sorted.size(), c * chunkSize);
+            int end = Math.min(sorted.size(), begin + chunkSize);
+            answers.set(c, sweep.answer(sorted.subList(begin, end)));
+        });
+        for (int c = 0; c < chunks; c += 1) {
+            List<List<CharSequence>> chunk = answers.get(c);
+            for (int i = 0; i < chunk.size(); i += 1) {
+                results.put(sorted.get(c * chunkSize + i), chunk.get(i));
+            }
+        }
+        return results;
+    }
+}
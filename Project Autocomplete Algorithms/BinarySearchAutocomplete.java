@@ -1,10 +1,10 @@
 package autocomplete;
 
-import javax.swing.plaf.synth.SynthOptionPaneUI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Binary search implementation of the {@link Autocomplete} interface.
@@ -16,19 +16,41 @@ public class BinarySearchAutocomplete implements Autocomplete {
      * {@link List} of added autocompletion terms.
      */
     private final List<CharSequence> terms;
+    /**
+     * Whether lookups go through a {@link LearnedIndex} rather than a full binary search.
+     */
+    private final boolean learned;
+    /**
+     * {@link LearnedIndex} over {@code terms}, rebuilt after each {@link #addAll(Collection)} in learned mode.
+     */
+    private LearnedIndex index;
 
 
     /**
      * Constructs an empty instance.
      */
     public BinarySearchAutocomplete() {
+        this(false);
+    }
+
+    /**
+     * Constructs an empty instance, optionally locating prefixes with a {@link LearnedIndex}. Learned mode suits
+     * large term lists that are static between reloads, since the model is refit on every {@link #addAll(Collection)}.
+     *
+     * @param learned whether to locate prefixes with a learned index.
+     */
+    public BinarySearchAutocomplete(boolean learned) {
         this.terms = new ArrayList<>();
+        this.learned = learned;
     }
 
     @Override
     public void addAll(Collection<? extends CharSequence> terms) {
         this.terms.addAll(terms);
         Collections.sort(this.terms, CharSequence::compare);
+        if (learned) {
+            index = new LearnedIndex(this.terms);
+        }
 
     }
 
@@ -38,30 +60,111 @@ public class BinarySearchAutocomplete implements Autocomplete {
         if (prefix == null || prefix.length() == 0) {
             return results;
         }
-        int i = Collections.binarySearch(terms, prefix, CharSequence::compare);
-            if (i >= 0) {
-                CharSequence start = terms.get(i);
-                boolean match = Autocomplete.isPrefixOf(prefix, start);
-                while (match) {
-                    results.add(start);
-                    i++;
-                    start = terms.get(i);
-                    match = Autocomplete.isPrefixOf(prefix, start);
-                }
-            } else {
-                CharSequence start = terms.get((-(i + 1)));
-                boolean match = Autocomplete.isPrefixOf(prefix, start);
-                while (match) {
-                    results.add(start);
-                    i--;
-                    start = terms.get((-(i + 1)));
-                    match = Autocomplete.isPrefixOf(prefix, start);
+        for (int i = lowerBound(prefix); i < terms.size(); i++) {
+            CharSequence term = terms.get(i);
+            if (!Autocomplete.isPrefixOf(prefix, term)) {
+                break;
+            }
+            results.add(term);
+        }
+        return results;
+    }
 
-                }
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+        }
+        List<CharSequence> results = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return results;
+        }
+        // Matches are contiguous in the sorted list, so the page starts exactly offset terms past the lower bound.
+        long start = (long) lowerBound(prefix) + offset;
+        for (long i = start; i < terms.size() && results.size() < limit; i++) {
+            CharSequence term = terms.get((int) i);
+            if (!Autocomplete.isPrefixOf(prefix, term)) {
+                break;
+            }
+            results.add(term);
+        }
+        return results;
+    }
 
+    @Override
+    public Map<CharSequence, List<CharSequence>> allMatchesBatch(Collection<? extends CharSequence> prefixes) {
+        return BatchQuery.run(prefixes, sorted -> {
+            // Lower bounds of sorted prefixes never decrease, so each search gallops forward from the previous one.
+            List<List<CharSequence>> results = new ArrayList<>(sorted.size());
+            int from = 0;
+            for (CharSequence prefix : sorted) {
+                from = lowerBound(prefix, from);
+                List<CharSequence> matches = new ArrayList<>();
+                for (int i = from; i < terms.size(); i++) {
+                    CharSequence term = terms.get(i);
+                    if (!Autocomplete.isPrefixOf(prefix, term)) {
+                        break;
+                    }
+                    matches.add(term);
+                }
+                results.add(matches);
             }
+            return results;
+        });
+    }
 
-        return results;
+    /**
+     * Returns the index of the first term that is not less than the given prefix. Unlike
+     * {@link Collections#binarySearch}, always lands on the first of any run of equal terms.
+     *
+     * @param prefix search query.
+     * @return the index of the first term that is not less than the prefix, or the number of terms if none.
+     */
+    private int lowerBound(CharSequence prefix) {
+        if (index != null) {
+            return index.lowerBound(prefix);
+        }
+        return lowerBound(prefix, 0, terms.size());
+    }
+
+    /**
+     * Returns the index of the first term that is not less than the given prefix, galloping forward from a known
+     * lower limit so that nearby searches only touch a few terms.
+     *
+     * @param prefix search query.
+     * @param from   an index no greater than the answer.
+     * @return the index of the first term that is not less than the prefix, or the number of terms if none.
+     */
+    private int lowerBound(CharSequence prefix, int from) {
+        long lo = from;
+        long hi = from;
+        long step = 1;
+        while (hi < terms.size() && CharSequence.compare(terms.get((int) hi), prefix) < 0) {
+            lo = hi + 1;
+            hi = from + step;
+            step <<= 1;
+        }
+        return lowerBound(prefix, (int) lo, (int) Math.min(hi, terms.size()));
+    }
+
+    /**
+     * Returns the index of the first term in the given range that is not less than the given prefix.
+     *
+     * @param prefix search query.
+     * @param lo     start of the range (inclusive).
+     * @param hi     end of the range (exclusive).
+     * @return the index of the first term in the range that is not less than the prefix, or hi if none.
+     */
+    private int lowerBound(CharSequence prefix, int lo, int hi) {
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (CharSequence.compare(terms.get(mid), prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
     }
 
 }
@@ -0,0 +1,64 @@
+package autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Front-coded dictionary implementation of the {@link Autocomplete} interface. Terms are kept sorted in a
+ * {@link FrontCodedDictionary} rather than as a {@link List} of separate objects, which cuts the per-term memory
+ * overhead and keeps neighboring terms next to each other in memory. Duplicate terms are stored once.
+ *
+ * @see Autocomplete
+ * @see BinarySearchAutocomplete
+ */
+public class FrontCodedAutocomplete implements Autocomplete {
+    /**
+     * Sorted dictionary of added autocompletion terms.
+     */
+    private FrontCodedDictionary terms;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public FrontCodedAutocomplete() {
+        this.terms = new FrontCodedDictionary(List.of());
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        // The dictionary is immutable, so merge the existing terms with the new ones and re-encode.
+        TreeSet<CharSequence> sorted = new TreeSet<>(CharSequence::compare);
+        this.terms.scan(0, (rank, term) -> sorted.add(term.toString()));
+        sorted.addAll(terms);
+        this.terms = new FrontCodedDictionary(new ArrayList<>(sorted));
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        return allMatches(prefix, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+        }
+        List<CharSequence> results = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0 || limit == 0) {
+            return results;
+        }
+        long start = (long) terms.lowerBound(prefix) + offset;
+        if (start < terms.size()) {
+            terms.scan((int) start, (rank, term) -> {
+                if (!Autocomplete.isPrefixOf(prefix, term)) {
+                    return false;
+                }
+                results.add(term.toString());
+                return results.size() < limit;
+            });
+        }
+        return results;
+    }
+}
@@ -0,0 +1,202 @@
+package autocomplete;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable sorted term dictionary stored as front-coded blocks in a single {@code byte[]}. Each block of
+ * {@link #BLOCK} terms begins with a full head term; every following term stores only the length of the prefix it
+ * shares with the previous term and its remaining suffix. Lengths and characters are written as variable-length
+ * integers, so ASCII characters take one byte each.
+ *
+ * @see FrontCodedAutocomplete
+ */
+class FrontCodedDictionary {
+    /**
+     * Number of terms per block.
+     */
+    static final int BLOCK = 32;
+    /**
+     * Encoded blocks, back to back.
+     */
+    private final byte[] data;
+    /**
+     * Start of each block in {@code data}.
+     */
+    private final int[] blocks;
+    /**
+     * Number of terms in this dictionary.
+     */
+    private final int size;
+
+    /**
+     * Constructs a dictionary from the given terms.
+     *
+     * @param sorted terms in {@link CharSequence#compare} order.
+     */
+    FrontCodedDictionary(List<? extends CharSequence> sorted) {
+        this.size = sorted.size();
+        this.blocks = new int[(size + BLOCK - 1) / BLOCK];
+        byte[] out = new byte[64];
+        int length = 0;
+        CharSequence previous = "";
+        for (int i = 0; i < size; i += 1) {
+            CharSequence term = sorted.get(i);
+            int shared = 0;
+            if (i % BLOCK == 0) {
+                blocks[i / BLOCK] = length;
+            } else {
+                int max = Math.min(previous.length(), term.length());
+                while (shared < max && previous.charAt(shared) == term.charAt(shared)) {
+                    shared += 1;
+                }
+            }
+            // Worst case: two 5-byte lengths plus 3 bytes per character.
+            int needed = length + 10 + 3 * (term.length() - shared);
+            if (needed > out.length) {
+                out = Arrays.copyOf(out, Math.max(needed, out.length * 2));
+            }
+            if (i % BLOCK != 0) {
+                length = writeVarint(out, length, shared);
+            }
+            length = writeVarint(out, length, term.length() - shared);
+            for (int j = shared; j < term.length(); j += 1) {
+                length = writeVarint(out, length, term.charAt(j));
+            }
+            previous = term;
+        }
+        this.data = Arrays.copyOf(out, length);
+    }
+
+    /**
+     * Returns the number of terms in this dictionary.
+     *
+     * @return the number of terms in this dictionary.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the rank of the first term that is not less than the given key. Binary searches the block heads, then
+     * decodes at most one block.
+     *
+     * @param key the search key.
+     * @return the rank of the first term not less than the key, or the size of the dictionary if none.
+     */
+    int lowerBound(CharSequence key) {
+        int lo = 0;
+        int hi = blocks.length;
+        // Find the first block whose head is not less than the key; the answer is in the block before it.
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareHead(mid, key) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (lo == 0) {
+            return 0;
+        }
+        int start = (lo - 1) * BLOCK;
+        int[] rank = {start};
+        scan(start, (r, term) -> {
+            if (r >= start + BLOCK || CharSequence.compare(term, key) >= 0) {
+                rank[0] = r;
+                return false;
+            }
+            rank[0] = r + 1;
+            return true;
+        });
+        return rank[0];
+    }
+
+    /**
+     * Visits terms in order starting from the given rank until the visitor returns false or the terms run out.
+     *
+     * @param rank    the rank of the first term to visit.
+     * @param visitor the action to run for each term.
+     */
+    void scan(int rank, Visitor visitor) {
+        if (rank >= size) {
+            return;
+        }
+        int block = rank / BLOCK;
+        int[] position = {blocks[block]};
+        char[] term = new char[16];
+        int length = 0;
+        for (int r = block * BLOCK; r < size; r += 1) {
+            if (r % BLOCK == 0) {
+                position[0] = blocks[r / BLOCK];
+                length = 0;
+            } else {
+                length = readVarint(position);
+            }
+            int suffix = readVarint(position);
+            if (length + suffix > term.length) {
+                term = Arrays.copyOf(term, Math.max(length + suffix, term.length * 2));
+            }
+            for (int j = 0; j < suffix; j += 1) {
+                term[length + j] = (char) readVarint(position);
+            }
+            length += suffix;
+            if (r >= rank && !visitor.visit(r, CharBuffer.wrap(term, 0, length))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Compares the head term of the given block against the key without decoding it into an object.
+     */
+    private int compareHead(int block, CharSequence key) {
+        int[] position = {blocks[block]};
+        int length = readVarint(position);
+        int max = Math.min(length, key.length());
+        for (int i = 0; i < max; i += 1) {
+            char c = (char) readVarint(position);
+            if (c != key.charAt(i)) {
+                return Character.compare(c, key.charAt(i));
+            }
+        }
+        return Integer.compare(length, key.length());
+    }
+
+    private static int writeVarint(byte[] out, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            out[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out[position++] = (byte) value;
+        return position;
+    }
+
+    private int readVarint(int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /**
+     * Receives terms during a {@link #scan(int, Visitor)}.
+     */
+    @FunctionalInterface
+    interface Visitor {
+        /**
+         * Visits one term. The term is only valid for the duration of the call.
+         *
+         * @param rank the rank of the term.
+         * @param term the decoded term.
+         * @return true to continue scanning, or false to stop.
+         */
+        boolean visit(int rank, CharSequence term);
+    }
+}
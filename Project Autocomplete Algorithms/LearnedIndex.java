@@ -0,0 +1,193 @@
+package autocomplete;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Piecewise-linear learned index over a sorted list of terms. Each term is reduced to a numeric key made from its first
+ * four characters (64 bits). A greedy shrinking-cone fit splits the keys into segments whose linear model predicts the
+ * position of every key within {@link #EPSILON}; a lookup evaluates one segment and finishes with a short local search
+ * instead of a binary search over the whole list.
+ *
+ * @see BinarySearchAutocomplete
+ */
+class LearnedIndex {
+    /**
+     * Maximum error of each segment's prediction, in positions.
+     */
+    static final int EPSILON = 32;
+    /**
+     * Number of characters packed into each key.
+     */
+    private static final int KEY_CHARS = Long.SIZE / Character.SIZE;
+
+    private final List<CharSequence> terms;
+    /**
+     * Key of each term, with the sign bit flipped so that signed comparison matches unsigned key order.
+     */
+    private final long[] keys;
+    /**
+     * First key covered by each segment.
+     */
+    private final long[] segmentKeys;
+    /**
+     * Position of the first key covered by each segment.
+     */
+    private final int[] segmentPositions;
+    /**
+     * Slope of each segment, in positions per unit key.
+     */
+    private final double[] segmentSlopes;
+
+    /**
+     * Constructs a learned index over the given terms.
+     *
+     * @param terms terms in {@link CharSequence#compare} order; must not change while this index is in use.
+     */
+    LearnedIndex(List<CharSequence> terms) {
+        this.terms = terms;
+        this.keys = new long[terms.size()];
+        for (int i = 0; i < keys.length; i += 1) {
+            keys[i] = key(terms.get(i));
+        }
+        long[] starts = new long[16];
+        int[] positions = new int[16];
+        double[] slopes = new double[16];
+        int segments = 0;
+        int i = 0;
+        while (i < keys.length) {
+            // Fit a segment through the first position of each distinct key, starting at (keys[i], i).
+            long x0 = keys[i];
+            int y0 = i;
+            double lo = 0;
+            double hi = Double.POSITIVE_INFINITY;
+            int j = i;
+            while (j < keys.length) {
+                int next = j;
+                while (next < keys.length && keys[next] == keys[j]) {
+                    next += 1;
+                }
+                if (keys[j] != x0) {
+                    double dx = distance(x0, keys[j]);
+                    double newLo = Math.max(lo, (j - y0 - EPSILON) / dx);
+                    double newHi = Math.min(hi, (j - y0 + EPSILON) / dx);
+                    if (newLo > newHi) {
+                        break;
+                    }
+                    lo = newLo;
+                    hi = newHi;
+                }
+                j = next;
+            }
+            if (segments == starts.length) {
+                starts = Arrays.copyOf(starts, segments * 2);
+                positions = Arrays.copyOf(positions, segments * 2);
+                slopes = Arrays.copyOf(slopes, segments * 2);
+            }
+            starts[segments] = x0;
+            positions[segments] = y0;
+            slopes[segments] = hi == Double.POSITIVE_INFINITY ? lo : (lo + hi) / 2;
+            segments += 1;
+            i = j;
+        }
+        this.segmentKeys = Arrays.copyOf(starts, segments);
+        this.segmentPositions = Arrays.copyOf(positions, segments);
+        this.segmentSlopes = Arrays.copyOf(slopes, segments);
+    }
+
+    /**
+     * Returns the index of the first term that is not less than the given prefix.
+     *
+     * @param prefix search query.
+     * @return the index of the first term that is not less than the prefix, or the number of terms if none.
+     */
+    int lowerBound(CharSequence prefix) {
+        long key = key(prefix);
+        int lo = firstAtLeast(key, predict(key));
+        int hi = key == Long.MAX_VALUE ? keys.length : firstAtLeast(key + 1, lo);
+        // Terms with a smaller key sort before the prefix and terms with a larger key sort after it.
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (CharSequence.compare(terms.get(mid), prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the predicted position of the first term with a key not less than the given key.
+     */
+    private int predict(long key) {
+        int segment = Arrays.binarySearch(segmentKeys, key);
+        if (segment < 0) {
+            segment = -(segment + 1) - 1;
+        }
+        if (segment < 0) {
+            return 0;
+        }
+        double position = segmentPositions[segment] + segmentSlopes[segment] * distance(segmentKeys[segment], key);
+        return (int) Math.max(0, Math.min(keys.length, Math.round(position)));
+    }
+
+    /**
+     * Returns the first position whose key is not less than the given key, galloping outward from a guess so that
+     * accurate predictions only touch a few keys.
+     */
+    private int firstAtLeast(long key, int guess) {
+        int lo;
+        int hi;
+        if (guess < keys.length && keys[guess] < key) {
+            // The answer is to the right of the guess.
+            lo = guess + 1;
+            long step = 1;
+            hi = lo;
+            while (hi < keys.length && keys[hi] < key) {
+                lo = hi + 1;
+                step <<= 1;
+                hi = (int) Math.min(keys.length, guess + step);
+            }
+        } else {
+            // The answer is at or to the left of the guess.
+            hi = guess;
+            long step = 1;
+            lo = hi;
+            while (lo > 0 && keys[lo - 1] >= key) {
+                hi = lo - 1;
+                step <<= 1;
+                lo = (int) Math.max(0, guess - step);
+            }
+        }
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the first four characters of the term packed into a long (missing characters are zero), with the sign
+     * bit flipped so that signed comparison of keys is consistent with {@link CharSequence#compare}.
+     */
+    private static long key(CharSequence term) {
+        long key = 0;
+        for (int i = 0; i < KEY_CHARS; i += 1) {
+            key = (key << Character.SIZE) | (i < term.length() ? term.charAt(i) : 0);
+        }
+        return key ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns the non-negative distance from one key to a larger key as a double, without overflow.
+     */
+    private static double distance(long from, long to) {
+        long difference = to - from;
+        return difference >= 0 ? difference : difference + 0x1p64;
+    }
+}
@@ -0,0 +1,157 @@
+package autocomplete;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Vectorized sequential scan implementation of the {@link Autocomplete} interface. Rather than keep each term as a
+ * separate object, stores all characters in one packed arena and scans it with the incubating Vector API: the first
+ * character of many terms is compared against the prefix at once, and only candidates are compared in full. Chunks of
+ * terms are scanned in parallel. Requires {@code --add-modules jdk.incubator.vector} to compile and run.
+ *
+ * @see Autocomplete
+ * @see SequentialSearchAutocomplete
+ */
+public class PackedScanAutocomplete implements Autocomplete {
+    /**
+     * Preferred vector shape for comparing 16-bit characters on this platform.
+     */
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+    /**
+     * Number of terms scanned by each parallel task.
+     */
+    private static final int CHUNK = 1 << 15;
+    /**
+     * Characters of all terms, back to back.
+     */
+    private short[] arena;
+    /**
+     * Start of each term in {@code arena}; term i spans {@code offsets[i]} to {@code offsets[i + 1]}.
+     */
+    private int[] offsets;
+    /**
+     * First character of each term (or 0 for the empty term), padded to a whole number of vectors.
+     */
+    private short[] firsts;
+    /**
+     * Number of terms added.
+     */
+    private int size;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public PackedScanAutocomplete() {
+        this.arena = new short[16];
+        this.offsets = new int[16];
+        this.firsts = new short[SPECIES.length()];
+        this.size = 0;
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        int chars = 0;
+        for (CharSequence term : terms) {
+            chars += term.length();
+        }
+        int used = offsets[size];
+        arena = Arrays.copyOf(arena, Math.max(arena.length, used + chars));
+        offsets = Arrays.copyOf(offsets, Math.max(offsets.length, size + terms.size() + 1));
+        firsts = Arrays.copyOf(firsts,
+                Math.max(firsts.length, SPECIES.loopBound(size + terms.size()) + SPECIES.length()));
+        for (CharSequence term : terms) {
+            int start = offsets[size];
+            for (int i = 0; i < term.length(); i += 1) {
+                arena[start + i] = (short) term.charAt(i);
+            }
+            firsts[size] = term.length() > 0 ? (short) term.charAt(0) : 0;
+            offsets[size + 1] = start + term.length();
+            size += 1;
+        }
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        List<CharSequence> results = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return results;
+        }
+        short[] pattern = new short[prefix.length()];
+        for (int i = 0; i < pattern.length; i += 1) {
+            pattern[i] = (short) prefix.charAt(i);
+        }
+        int chunks = (size + CHUNK - 1) / CHUNK;
+        int[][] matches = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> scan(pattern, c * CHUNK, Math.min(size, (c + 1) * CHUNK)))
+                .toArray(int[][]::new);
+        for (int[] chunk : matches) {
+            for (int t : chunk) {
+                char[] term = new char[offsets[t + 1] - offsets[t]];
+                for (int i = 0; i < term.length; i += 1) {
+                    term[i] = (char) arena[offsets[t] + i];
+                }
+                results.add(new String(term));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the indices of the terms in the given range that match the pattern.
+     *
+     * @param pattern the characters of the prefix.
+     * @param begin   first term to scan (inclusive), a multiple of the vector length.
+     * @param end     last term to scan (exclusive).
+     * @return the indices of matching terms in increasing order.
+     */
+    private int[] scan(short[] pattern, int begin, int end) {
+        IntStream.Builder result = IntStream.builder();
+        short first = pattern[0];
+        for (int i = begin; i < end; i += SPECIES.length()) {
+            VectorMask<Short> hits = ShortVector.fromArray(SPECIES, firsts, i).eq(first);
+            long bits = hits.toLong();
+            while (bits != 0) {
+                int t = i + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (t < end && matches(pattern, t)) {
+                    result.add(t);
+                }
+            }
+        }
+        return result.build().toArray();
+    }
+
+    /**
+     * Returns true if and only if the term at the given index starts with the pattern.
+     *
+     * @param pattern the characters of the prefix.
+     * @param t       the index of the term.
+     * @return true if and only if the term starts with the pattern.
+     */
+    private boolean matches(short[] pattern, int t) {
+        int start = offsets[t];
+        if (offsets[t + 1] - start < pattern.length) {
+            return false;
+        }
+        int i = 0;
+        for (int bound = SPECIES.loopBound(pattern.length); i < bound; i += SPECIES.length()) {
+            ShortVector expected = ShortVector.fromArray(SPECIES, pattern, i);
+            if (!ShortVector.fromArray(SPECIES, arena, start + i).eq(expected).allTrue()) {
+                return false;
+            }
+        }
+        for (; i < pattern.length; i += 1) {
+            if (arena[start + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package autocomplete;
+
+/**
+ * Bloom filter over prefix hashes. Prefix hashes are built one character at a time with {@link #extend(long, char)},
+ * so all prefixes of a term can be inserted in a single pass over its characters.
+ *
+ * @see PrefixFilterAutocomplete
+ */
+class PrefixBloomFilter {
+    /**
+     * Hash of the empty prefix.
+     */
+    static final long EMPTY = 0xcbf29ce484222325L;
+    private final long[] bits;
+    private final long size;
+    private final int hashes;
+
+    /**
+     * Constructs an empty filter sized for the expected number of prefixes and target false-positive rate.
+     *
+     * @param expected          the expected number of distinct prefixes.
+     * @param falsePositiveRate the target probability that an absent prefix is reported as present.
+     * @throws IllegalArgumentException if the false-positive rate is not strictly between 0 and 1.
+     */
+    PrefixBloomFilter(long expected, double falsePositiveRate) {
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        long n = Math.max(1, expected);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.size = Math.max(Long.SIZE, Math.min(m, (long) Integer.MAX_VALUE * Long.SIZE));
+        this.bits = new long[(int) ((size + Long.SIZE - 1) / Long.SIZE)];
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round((double) size / n * ln2)));
+    }
+
+    /**
+     * Returns the hash of the prefix extended by one character (64-bit FNV-1a).
+     *
+     * @param hash the hash of the prefix, starting from {@link #EMPTY}.
+     * @param c    the next character.
+     * @return the hash of the extended prefix.
+     */
+    static long extend(long hash, char c) {
+        return (hash ^ c) * 0x100000001b3L;
+    }
+
+    /**
+     * Adds the prefix with the given hash.
+     *
+     * @param hash the prefix hash.
+     */
+    void add(long hash) {
+        long h1 = mix(hash);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i += 1) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Returns false if the prefix with the given hash was definitely never added.
+     *
+     * @param hash the prefix hash.
+     * @return false if the prefix was never added, true if it may have been.
+     */
+    boolean mightContain(long hash) {
+        long h1 = mix(hash);
+        long h2 = mix(h1) | 1;
+        for (int i = 0; i < hashes; i += 1) {
+            long bit = Math.floorMod(h1 + i * h2, size);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finalizes a hash so that every output bit depends on every input bit (MurmurHash3 fmix64).
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,130 @@
+package autocomplete;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link Autocomplete} decorator that rejects prefixes with no matches before they reach the underlying
+ * implementation. Every prefix of every added term, up to a configurable length, is recorded in a
+ * {@link PrefixBloomFilter}; a query whose leading characters were never recorded cannot match anything. Each call to
+ * {@link #addAll(Collection)} records its prefixes in a new filter sized for that batch.
+ *
+ * @see Autocomplete
+ */
+public class PrefixFilterAutocomplete implements Autocomplete {
+    /**
+     * The decorated autocomplete that answers queries passing the filter.
+     */
+    private final Autocomplete autocomplete;
+    /**
+     * Longest prefix recorded in the filters; longer queries are checked by their leading characters.
+     */
+    private final int maxPrefixLength;
+    /**
+     * Target false-positive rate of each filter.
+     */
+    private final double falsePositiveRate;
+    /**
+     * One filter per {@link #addAll(Collection)} call.
+     */
+    private final List<PrefixBloomFilter> filters;
+
+    /**
+     * Constructs an empty instance that filters queries to the given autocomplete.
+     *
+     * @param autocomplete      the autocomplete to decorate; must be empty.
+     * @param maxPrefixLength   the longest prefix to record.
+     * @param falsePositiveRate the target probability that a query with no matches still reaches the autocomplete.
+     * @throws IllegalArgumentException if maxPrefixLength is not positive or the rate is not in (0, 1).
+     */
+    public PrefixFilterAutocomplete(Autocomplete autocomplete, int maxPrefixLength, double falsePositiveRate) {
+        if (maxPrefixLength <= 0) {
+            throw new IllegalArgumentException("maxPrefixLength must be positive: " + maxPrefixLength);
+        } else if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("false-positive rate must be in (0, 1): " + falsePositiveRate);
+        }
+        this.autocomplete = autocomplete;
+        this.maxPrefixLength = maxPrefixLength;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filters = new ArrayList<>();
+    }
+
+    @Override
+    public void addAll(Collection<? extends CharSequence> terms) {
+        long prefixes = 0;
+        for (CharSequence term : terms) {
+            prefixes += Math.min(term.length(), maxPrefixLength);
+        }
+        PrefixBloomFilter filter = new PrefixBloomFilter(prefixes, falsePositiveRate);
+        for (CharSequence term : terms) {
+            long hash = PrefixBloomFilter.EMPTY;
+            for (int i = 0; i < Math.min(term.length(), maxPrefixLength); i += 1) {
+                hash = PrefixBloomFilter.extend(hash, term.charAt(i));
+                filter.add(hash);
+            }
+        }
+        filters.add(filter);
+        autocomplete.addAll(terms);
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix) {
+        if (!mightMatch(prefix)) {
+            return new ArrayList<>();
+        }
+        return autocomplete.allMatches(prefix);
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (!mightMatch(prefix)) {
+            if (offset < 0 || limit < 0) {
+                throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+            }
+            return new ArrayList<>();
+        }
+        return autocomplete.allMatches(prefix, offset, limit);
+    }
+
+    @Override
+    public Map<CharSequence, List<CharSequence>> allMatchesBatch(Collection<? extends CharSequence> prefixes) {
+        List<CharSequence> candidates = new ArrayList<>();
+        List<CharSequence> rejected = new ArrayList<>();
+        for (CharSequence prefix : prefixes) {
+            if (prefix != null && !mightMatch(prefix)) {
+                rejected.add(prefix);
+            } else {
+                candidates.add(prefix);
+            }
+        }
+        Map<CharSequence, List<CharSequence>> results = autocomplete.allMatchesBatch(candidates);
+        for (CharSequence prefix : rejected) {
+            results.put(prefix, new ArrayList<>());
+        }
+        return results;
+    }
+
+    /**
+     * Returns false if no added term can match the given prefix.
+     *
+     * @param prefix search query.
+     * @return false if no added term can match the prefix, true if some term may match.
+     */
+    public boolean mightMatch(CharSequence prefix) {
+        if (prefix == null || prefix.length() == 0) {
+            return true; // Let the decorated autocomplete decide how to answer empty queries
+        }
+        long hash = PrefixBloomFilter.EMPTY;
+        for (int i = 0; i < Math.min(prefix.length(), maxPrefixLength); i += 1) {
+            hash = PrefixBloomFilter.extend(hash, prefix.charAt(i));
+        }
+        for (PrefixBloomFilter filter : filters) {
+            if (filter.mightContain(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
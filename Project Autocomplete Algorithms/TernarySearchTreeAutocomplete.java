@@ -3,6 +3,7 @@ package autocomplete;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Ternary search tree (TST) implementation of the {@link Autocomplete} interface.
@@ -27,7 +28,11 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
         if (key == null) {
             throw new IllegalArgumentException("argument to contains() is null");
         }
-        return get(key) != 0;
+        if (key.length() == 0) {
+            return false;
+        }
+        Node x = get(overallRoot, key, 0);
+        return x != null && x.isTerm;
     }
     public int get(CharSequence key) {
         if (key == null) {
@@ -66,6 +71,7 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
         if (x == null) {
             x = new Node(nodeData);
         }
+        x.size += 1; // Only called for new terms, so every node on the path gains one term in its subtree
         if      (nodeData < x.data)      {         x.left  = put(x.left,  key,  d);}
         else if (nodeData > x.data)  {             x.right = put(x.right, key,  d);}
         else if (d < key.length() - 1) {  x.mid   = put(x.mid,   key, d+1);}
@@ -91,12 +97,11 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
             StringBuilder sbnew = new StringBuilder(sb.toString()); // sbnew holds
             sbnew.append(x.data);                                   // current node's character
 
+            // old sb left and right, new sb down middle
+            collect(x.left, strings, sb);
             if (x.isTerm) {
                 strings.add(sbnew);
             }
-
-            // old sb left and right, new sb down middle
-            collect(x.left, strings, sb);
             collect(x.mid, strings, sbnew);
             collect(x.right, strings, sb);
             }
@@ -107,9 +112,20 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
         if (prefix.length() == 0) {
             return null;
         }
+        return matchesBelow(get(overallRoot, prefix, 0), prefix);
+
+    }
+
+    /**
+     * Returns all terms in the subtree of the node matching the last character of the given prefix.
+     *
+     * @param x      the node for the last character of the prefix, or null if the prefix is not in the tree.
+     * @param prefix search query.
+     * @return all terms that match the given prefix.
+     */
+    private List<CharSequence> matchesBelow(Node x, CharSequence prefix) {
         StringBuilder sb = new StringBuilder();
         List<CharSequence> strings = new ArrayList<>();
-        Node x = get(overallRoot, prefix, 0);
         if(x != null) {
             sb.append(prefix);
             if (x.isTerm) {
@@ -123,12 +139,114 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
 
     }
 
+    @Override
+    public Map<CharSequence, List<CharSequence>> allMatchesBatch(Collection<? extends CharSequence> prefixes) {
+        return BatchQuery.run(prefixes, sorted -> {
+            // Shared walk: path[d] is the node matched by character d of the previous prefix, so a prefix sharing
+            // its first few characters with the previous one resumes the descent below that common path.
+            int maxLength = 0;
+            for (CharSequence prefix : sorted) {
+                maxLength = Math.max(maxLength, prefix.length());
+            }
+            Node[] path = new Node[maxLength];
+            CharSequence previous = "";
+            int matched = 0;
+            List<List<CharSequence>> results = new ArrayList<>(sorted.size());
+            for (CharSequence prefix : sorted) {
+                int d = 0;
+                while (d < matched && d < prefix.length() && previous.charAt(d) == prefix.charAt(d)) {
+                    d += 1;
+                }
+                if (d == prefix.length()) {
+                    d -= 1; // Re-match the last character so that path[d] is refreshed below
+                }
+                Node x = d == 0 ? overallRoot : path[d - 1].mid;
+                while (x != null && d < prefix.length()) {
+                    char c = prefix.charAt(d);
+                    if (c < x.data) {
+                        x = x.left;
+                    } else if (c > x.data) {
+                        x = x.right;
+                    } else {
+                        path[d] = x;
+                        d += 1;
+                        if (d < prefix.length()) {
+                            x = x.mid;
+                        }
+                    }
+                }
+                matched = d;
+                previous = prefix;
+                results.add(matchesBelow(d == prefix.length() ? path[d - 1] : null, prefix));
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+        }
+        List<CharSequence> strings = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return strings;
+        }
+        Node x = get(overallRoot, prefix, 0);
+        if (x != null && limit > 0) {
+            StringBuilder sb = new StringBuilder(prefix);
+            int skip = offset;
+            if (x.isTerm) {
+                if (skip == 0) {
+                    strings.add(sb.toString());
+                } else {
+                    skip -= 1;
+                }
+            }
+            collect(x.mid, sb, skip, limit, strings);
+        }
+        return strings;
+    }
+
+    /**
+     * Collects terms below the given node in lexicographic order, skipping whole subtrees using their sizes so that
+     * deep pages cost about the same as the first page.
+     *
+     * @param x       the root of the subtree.
+     * @param sb      the characters on the path to (but not including) x.
+     * @param skip    the number of terms still to be skipped.
+     * @param limit   the maximum number of terms to collect.
+     * @param strings the destination for collected terms.
+     * @return the number of terms still to be skipped after this subtree.
+     */
+    private int collect(Node x, StringBuilder sb, int skip, int limit, List<CharSequence> strings) {
+        if (x == null || strings.size() >= limit) {
+            return skip;
+        }
+        if (skip >= x.size) {
+            return skip - x.size;
+        }
+        skip = collect(x.left, sb, skip, limit, strings);
+        sb.append(x.data);
+        if (x.isTerm && strings.size() < limit) {
+            if (skip == 0) {
+                strings.add(sb.toString());
+            } else {
+                skip -= 1;
+            }
+        }
+        skip = collect(x.mid, sb, skip, limit, strings);
+        sb.setLength(sb.length() - 1);
+        return collect(x.right, sb, skip, limit, strings);
+    }
+
     /**
      * A search tree node representing a single character in an autocompletion term.
      */
     private static class Node {
         private final char data;
         private boolean isTerm;
+        private int size; // number of terms ending in this node's left, mid, and right subtrees (inclusive)
         private Node left;
         private Node mid;
         private Node right;
@@ -136,6 +254,7 @@ public class TernarySearchTreeAutocomplete implements Autocomplete {
         public Node(char data) {
             this.data = data;
             this.isTerm = false;
+            this.size = 0;
             this.left = null;
             this.mid = null;
             this.right = null;
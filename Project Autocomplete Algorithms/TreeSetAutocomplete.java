@@ -12,6 +12,11 @@ public class TreeSetAutocomplete implements Autocomplete {
      * {@link NavigableSet} of added autocompletion terms.
      */
     private final NavigableSet<CharSequence> terms;
+    /**
+     * Sorted array snapshot of {@code terms} providing rank-based random access, or null if stale. Volatile and only
+     * ever assigned a fully built array, so concurrent paged queries never see a partially written snapshot.
+     */
+    private volatile CharSequence[] ranked;
 
     /**
      * Constructs an empty instance.
@@ -23,6 +28,7 @@ public class TreeSetAutocomplete implements Autocomplete {
     @Override
     public void addAll(Collection<? extends CharSequence> terms) {
         this.terms.addAll(terms);
+        this.ranked = null;
     }
 
     @Override
@@ -44,4 +50,31 @@ public class TreeSetAutocomplete implements Autocomplete {
         }
         return result;
     }
+
+    @Override
+    public List<CharSequence> allMatches(CharSequence prefix, int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("offset " + offset + ", limit " + limit);
+        }
+        List<CharSequence> result = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return result;
+        }
+        // TreeSet has no rank queries, so page through a sorted snapshot that is rebuilt only after addAll.
+        CharSequence[] ranked = this.ranked;
+        if (ranked == null) {
+            ranked = terms.toArray(new CharSequence[0]);
+            this.ranked = ranked;
+        }
+        int i = Arrays.binarySearch(ranked, prefix, CharSequence::compare);
+        long start = (long) (i < 0 ? -(i + 1) : i) + offset;
+        for (long j = start; j < ranked.length && result.size() < limit; j++) {
+            CharSequence term = ranked[(int) j];
+            if (!Autocomplete.isPrefixOf(prefix, term)) {
+                break;
+            }
+            result.add(term);
+        }
+        return result;
+    }
 }
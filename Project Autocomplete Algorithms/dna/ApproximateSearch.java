@@ -0,0 +1,230 @@
+package autocomplete.dna;
+
+import autocomplete.Autocomplete;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Approximate search over an {@link Autocomplete} index of all suffixes of a sequence. Uses pigeonhole seeding: if a
+ * pattern occurs with at most <i>k</i> mismatches or edits, then at least one of its <i>k + 1</i> disjoint pieces
+ * occurs exactly, so exact prefix searches for the pieces find every candidate location. Candidates are then verified
+ * directly (mismatches) or with Myers' bit-parallel algorithm (edits).
+ *
+ * @see SuffixCollection
+ */
+class ApproximateSearch {
+    /**
+     * Longest pattern that fits in the bit vectors of {@link #myers(CharSequence, int, int, int, SortedSet)}.
+     */
+    private static final int WORD = Long.SIZE;
+    /**
+     * The sequence whose suffixes are indexed.
+     */
+    private final CharSequence data;
+    /**
+     * Index containing every suffix of the data.
+     */
+    private final Autocomplete index;
+
+    /**
+     * Constructs an instance that searches the given data through the given suffix index.
+     *
+     * @param data  the indexed sequence.
+     * @param index an {@link Autocomplete} containing all suffixes of the data, e.g. from {@link SuffixCollection}.
+     */
+    ApproximateSearch(CharSequence data, Autocomplete index) {
+        this.data = data;
+        this.index = index;
+    }
+
+    /**
+     * Returns the start offsets of all occurrences of the pattern with at most <i>k</i> mismatches (Hamming distance).
+     *
+     * @param pattern the pattern to find.
+     * @param k       the maximum number of mismatches.
+     * @return the sorted start offsets of all approximate occurrences.
+     * @throws IllegalArgumentException if k is negative or the pattern is not longer than k.
+     */
+    SortedSet<Integer> mismatches(CharSequence pattern, int k) {
+        checkArguments(pattern, k);
+        int m = pattern.length();
+        SortedSet<Integer> result = new TreeSet<>();
+        BitSet verified = new BitSet(data.length());
+        for (int piece = 0; piece <= k; piece += 1) {
+            int begin = pieceBegin(m, k, piece);
+            int end = pieceBegin(m, k, piece + 1);
+            for (CharSequence seed : index.allMatches(pattern.subSequence(begin, end))) {
+                int start = offsetOf(seed) - begin;
+                if (start < 0 || start + m > data.length() || verified.get(start)) {
+                    continue;
+                }
+                verified.set(start);
+                int errors = 0;
+                for (int i = 0; i < m && errors <= k; i += 1) {
+                    if (data.charAt(start + i) != pattern.charAt(i)) {
+                        errors += 1;
+                    }
+                }
+                if (errors <= k) {
+                    result.add(start);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the end offsets (exclusive) of all occurrences of the pattern with at most <i>k</i> insertions,
+     * deletions, or substitutions (edit distance). Several neighboring end offsets may be reported for a single
+     * occurrence.
+     *
+     * @param pattern the pattern to find.
+     * @param k       the maximum number of edits.
+     * @return the sorted end offsets of all approximate occurrences.
+     * @throws IllegalArgumentException if k is negative or the pattern is not longer than k.
+     */
+    SortedSet<Integer> edits(CharSequence pattern, int k) {
+        checkArguments(pattern, k);
+        int m = pattern.length();
+        SortedSet<Integer> result = new TreeSet<>();
+        BitSet verified = new BitSet(data.length());
+        for (int piece = 0; piece <= k; piece += 1) {
+            int begin = pieceBegin(m, k, piece);
+            int end = pieceBegin(m, k, piece + 1);
+            List<CharSequence> seeds = index.allMatches(pattern.subSequence(begin, end));
+            for (CharSequence seed : seeds) {
+                // The piece can shift by at most k positions relative to the start of the pattern.
+                int start = offsetOf(seed) - begin;
+                if (start >= 0 && verified.get(start)) {
+                    continue;
+                } else if (start >= 0) {
+                    verified.set(start);
+                }
+                int windowBegin = Math.max(0, start - k);
+                int windowEnd = Math.min(data.length(), start + m + k);
+                if (windowBegin < windowEnd) {
+                    verify(pattern, k, windowBegin, windowEnd, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Adds the end offsets of all occurrences of the pattern with at most k edits that lie within the window.
+     *
+     * @param pattern the pattern to find.
+     * @param k       the maximum number of edits.
+     * @param begin   start of the window in the data (inclusive).
+     * @param end     end of the window in the data (exclusive).
+     * @param result  the destination for end offsets.
+     */
+    private void verify(CharSequence pattern, int k, int begin, int end, SortedSet<Integer> result) {
+        if (pattern.length() <= WORD && isAscii(pattern)) {
+            myers(pattern, k, begin, end, result);
+        } else {
+            sellers(pattern, k, begin, end, result);
+        }
+    }
+
+    /**
+     * Myers' bit-parallel approximate string matching for patterns of at most 64 ASCII characters. Keeps the vertical
+     * deltas of one dynamic programming column in two words, so each text character costs a handful of operations.
+     *
+     * @see #verify(CharSequence, int, int, int, SortedSet)
+     */
+    private void myers(CharSequence pattern, int k, int begin, int end, SortedSet<Integer> result) {
+        int m = pattern.length();
+        long[] peq = new long[128];
+        for (int i = 0; i < m; i += 1) {
+            peq[pattern.charAt(i)] |= 1L << i;
+        }
+        long last = 1L << (m - 1);
+        long pv = -1L;
+        long mv = 0L;
+        int score = m;
+        for (int j = begin; j < end; j += 1) {
+            char c = data.charAt(j);
+            long eq = c < peq.length ? peq[c] : 0L;
+            long xv = eq | mv;
+            long xh = (((eq & pv) + pv) ^ pv) | eq;
+            long ph = mv | ~(xh | pv);
+            long mh = pv & xh;
+            if ((ph & last) != 0) {
+                score += 1;
+            } else if ((mh & last) != 0) {
+                score -= 1;
+            }
+            ph <<= 1;
+            mh <<= 1;
+            pv = mh | ~(xv | ph);
+            mv = ph & xv;
+            if (score <= k) {
+                result.add(j + 1);
+            }
+        }
+    }
+
+    /**
+     * Sellers' dynamic programming approximate string matching, used for patterns too long for {@link #myers}.
+     *
+     * @see #verify(CharSequence, int, int, int, SortedSet)
+     */
+    private void sellers(CharSequence pattern, int k, int begin, int end, SortedSet<Integer> result) {
+        int m = pattern.length();
+        int[] column = new int[m + 1];
+        for (int i = 0; i <= m; i += 1) {
+            column[i] = i;
+        }
+        for (int j = begin; j < end; j += 1) {
+            char c = data.charAt(j);
+            int diagonal = column[0];
+            for (int i = 1; i <= m; i += 1) {
+                int above = column[i];
+                int cost = pattern.charAt(i - 1) == c ? 0 : 1;
+                column[i] = Math.min(Math.min(above, column[i - 1]) + 1, diagonal + cost);
+                diagonal = above;
+            }
+            if (column[m] <= k) {
+                result.add(j + 1);
+            }
+        }
+    }
+
+    /**
+     * Returns the offset of the given suffix in the data. Suffixes always end at the end of the data.
+     *
+     * @param suffix a suffix of the data returned by the index.
+     * @return the offset at which the suffix begins.
+     */
+    private int offsetOf(CharSequence suffix) {
+        return data.length() - suffix.length();
+    }
+
+    /**
+     * Returns the start of the given piece when splitting a pattern of length m into k + 1 near-equal pieces.
+     */
+    private static int pieceBegin(int m, int k, int piece) {
+        return (int) ((long) m * piece / (k + 1));
+    }
+
+    private static boolean isAscii(CharSequence pattern) {
+        for (int i = 0; i < pattern.length(); i += 1) {
+            if (pattern.charAt(i) >= 128) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkArguments(CharSequence pattern, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        } else if (pattern.length() <= k) {
+            throw new IllegalArgumentException("pattern must be longer than k: " + pattern);
+        }
+    }
+}
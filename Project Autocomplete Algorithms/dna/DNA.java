@@ -5,8 +5,11 @@ import autocomplete.TreeSetAutocomplete;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -23,6 +26,10 @@ class DNA {
     private static final String PATH = "data/ecoli.txt.gz";
 
     public static void main(String[] args) throws IOException {
+        if (args.length > 0) {
+            searchAll(args);
+            return;
+        }
         String dna = new Scanner(new GZIPInputStream(new FileInputStream(PATH))).next();
         Autocomplete autocomplete = new TreeSetAutocomplete();
         autocomplete.addAll(new SuffixCollection(dna));
@@ -34,6 +41,18 @@ class DNA {
             if (prefix.isEmpty()) {
                 System.exit(0);
             }
+            if (prefix.startsWith("#")) {
+                kmers(dna, prefix);
+                System.out.println();
+                System.out.print("Query: ");
+                continue;
+            }
+            if (prefix.contains("~") || prefix.contains("%")) {
+                approximate(new ApproximateSearch(dna, autocomplete), prefix);
+                System.out.println();
+                System.out.print("Query: ");
+                continue;
+            }
             List<CharSequence> matches = autocomplete.allMatches(prefix);
             System.out.println(matches.size() + " matches");
             for (int i = 0; i < Math.min(matches.size(), MAX_MATCHES); i += 1) {
@@ -47,4 +66,83 @@ class DNA {
             System.out.print("Query: ");
         }
     }
+
+    /**
+     * Searches several gzipped sequence files at once through a single {@link GenomeIndex}.
+     *
+     * @param paths paths to the gzipped sequence files.
+     * @throws IOException if a file cannot be read.
+     */
+    private static void searchAll(String[] paths) throws IOException {
+        Map<String, String> documents = new LinkedHashMap<>();
+        for (String path : paths) {
+            documents.put(path, new Scanner(new GZIPInputStream(new FileInputStream(path))).next());
+        }
+        GenomeIndex index = new GenomeIndex(documents);
+
+        Scanner stdin = new Scanner(System.in);
+        System.out.print("Query: ");
+        while (stdin.hasNextLine()) {
+            String prefix = stdin.nextLine();
+            if (prefix.isEmpty()) {
+                System.exit(0);
+            }
+            List<GenomeIndex.Hit> hits = index.allMatches(prefix);
+            System.out.println(hits.size() + " matches in " + index.documents() + " documents");
+            for (int i = 0; i < Math.min(hits.size(), MAX_MATCHES); i += 1) {
+                System.out.println(hits.get(i));
+            }
+            System.out.println();
+            System.out.print("Query: ");
+        }
+    }
+
+    /**
+     * Prints the most frequent k-mers for queries of the form {@code #k} or {@code #k n}, which list the {@code n}
+     * (default {@value #MAX_MATCHES}) most frequent substrings of length <i>k</i> with their counts.
+     *
+     * @param dna   the DNA text.
+     * @param query the query including k and optionally n.
+     */
+    private static void kmers(String dna, String query) {
+        String[] parts = query.substring(1).strip().split("\\s+");
+        try {
+            int k = Integer.parseInt(parts[0]);
+            int n = parts.length > 1 ? Integer.parseInt(parts[1]) : MAX_MATCHES;
+            List<Map.Entry<String, Integer>> top = new KmerCounter(dna, k).mostFrequent(n);
+            System.out.println(top.size() + " most frequent " + k + "-mers");
+            for (Map.Entry<String, Integer> entry : top) {
+                System.out.println(entry.getKey() + " " + entry.getValue());
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Prints approximate matches for queries of the form {@code PATTERN~k} (at most <i>k</i> mismatches) or
+     * {@code PATTERN%k} (at most <i>k</i> edits).
+     *
+     * @param search the approximate search over the DNA index.
+     * @param query  the query including the error bound.
+     */
+    private static void approximate(ApproximateSearch search, String query) {
+        boolean edits = query.contains("%");
+        String[] parts = query.split(edits ? "%" : "~", 2);
+        try {
+            int k = Integer.parseInt(parts[1].strip());
+            Set<Integer> offsets = edits ? search.edits(parts[0], k) : search.mismatches(parts[0], k);
+            System.out.println(offsets.size() + (edits ? " end offsets" : " start offsets"));
+            int i = 0;
+            for (int offset : offsets) {
+                if (i == MAX_MATCHES) {
+                    break;
+                }
+                System.out.println(offset);
+                i += 1;
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println(e.getMessage());
+        }
+    }
 }
@@ -0,0 +1,215 @@
+package autocomplete.dna;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Prefix search over many sequences at once. Sequences are concatenated with a {@link #SEPARATOR} after each one and
+ * all suffixes are kept as a sorted array of offsets into the concatenation. Each hit reports the document it belongs
+ * to and its offset within that document.
+ *
+ * @see SuffixCollection
+ */
+class GenomeIndex {
+    /**
+     * Terminates each document in the concatenation. Must not appear in any document.
+     */
+    static final char SEPARATOR = '$';
+    /**
+     * All documents, each followed by {@link #SEPARATOR}.
+     */
+    private final String text;
+    /**
+     * Names of the documents, in order of appearance in {@code text}.
+     */
+    private final String[] names;
+    /**
+     * Start offset of each document in {@code text}, in increasing order.
+     */
+    private final int[] starts;
+    /**
+     * Offsets into {@code text} of every suffix that does not begin with a separator, in sorted order.
+     */
+    private final int[] suffixes;
+
+    /**
+     * Constructs an index over the given documents. Each document's suffixes are sorted in parallel and the sorted
+     * runs are then merged into one suffix array.
+     *
+     * @param documents map from document name to sequence, in the desired order.
+     * @throws IllegalArgumentException if a document contains the separator.
+     */
+    GenomeIndex(Map<String, ? extends CharSequence> documents) {
+        this.names = documents.keySet().toArray(new String[0]);
+        this.starts = new int[names.length];
+        StringBuilder concatenation = new StringBuilder();
+        int d = 0;
+        for (CharSequence document : documents.values()) {
+            for (int i = 0; i < document.length(); i += 1) {
+                if (document.charAt(i) == SEPARATOR) {
+                    throw new IllegalArgumentException(names[d] + " contains separator " + SEPARATOR);
+                }
+            }
+            starts[d] = concatenation.length();
+            concatenation.append(document).append(SEPARATOR);
+            d += 1;
+        }
+        this.text = concatenation.toString();
+        Comparator<Integer> bySuffix = this::compareSuffixes;
+        int[][] runs = IntStream.range(0, names.length).parallel()
+                .mapToObj(doc -> IntStream.range(starts[doc], end(doc)).boxed()
+                        .sorted(bySuffix).mapToInt(Integer::intValue).toArray())
+                .toArray(int[][]::new);
+        this.suffixes = merge(runs);
+    }
+
+    /**
+     * Merges the sorted runs of suffix offsets with a k-way merge.
+     *
+     * @param runs the sorted suffix offsets of each document.
+     * @return all suffix offsets in sorted order.
+     */
+    private int[] merge(int[][] runs) {
+        int total = 0;
+        for (int[] run : runs) {
+            total += run.length;
+        }
+        int[] result = new int[total];
+        int[] cursors = new int[runs.length];
+        PriorityQueue<Integer> heads = new PriorityQueue<>(Math.max(1, runs.length),
+                (a, b) -> compareSuffixes(runs[a][cursors[a]], runs[b][cursors[b]]));
+        for (int r = 0; r < runs.length; r += 1) {
+            if (runs[r].length > 0) {
+                heads.add(r);
+            }
+        }
+        for (int i = 0; i < total; i += 1) {
+            int r = heads.poll();
+            result[i] = runs[r][cursors[r]];
+            cursors[r] += 1;
+            if (cursors[r] < runs[r].length) {
+                heads.add(r);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns all occurrences of the given prefix across all documents, in suffix order.
+     *
+     * @param prefix search query.
+     * @return all occurrences of the prefix.
+     */
+    List<Hit> allMatches(CharSequence prefix) {
+        List<Hit> result = new ArrayList<>();
+        if (prefix == null || prefix.length() == 0) {
+            return result;
+        }
+        int lo = 0;
+        int hi = suffixes.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparePrefix(suffixes[mid], prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < suffixes.length && comparePrefix(suffixes[i], prefix) == 0; i += 1) {
+            int doc = documentOf(suffixes[i]);
+            result.add(new Hit(names[doc], suffixes[i] - starts[doc]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the number of documents in this index.
+     *
+     * @return the number of documents in this index.
+     */
+    int documents() {
+        return names.length;
+    }
+
+    /**
+     * Returns the index of the document containing the given offset into the concatenation.
+     */
+    private int documentOf(int offset) {
+        int i = Arrays.binarySearch(starts, offset);
+        return i >= 0 ? i : -(i + 1) - 1;
+    }
+
+    /**
+     * Returns the offset of the separator that ends the given document.
+     */
+    private int end(int doc) {
+        return (doc + 1 < starts.length ? starts[doc + 1] : text.length()) - 1;
+    }
+
+    /**
+     * Compares the suffixes at the given offsets, treating the separator as smaller than any other character and
+     * breaking ties between equal suffixes of different documents by offset.
+     */
+    private int compareSuffixes(int a, int b) {
+        int i = a;
+        int j = b;
+        while (true) {
+            char x = text.charAt(i);
+            char y = text.charAt(j);
+            if (x == SEPARATOR || y == SEPARATOR) {
+                if (x == y) {
+                    return Integer.compare(a, b);
+                }
+                return x == SEPARATOR ? -1 : 1;
+            } else if (x != y) {
+                return Character.compare(x, y);
+            }
+            i += 1;
+            j += 1;
+        }
+    }
+
+    /**
+     * Compares the suffix at the given offset, truncated to the prefix length, against the prefix.
+     */
+    private int comparePrefix(int offset, CharSequence prefix) {
+        for (int i = 0; i < prefix.length(); i += 1) {
+            char x = text.charAt(offset + i);
+            if (x == SEPARATOR) {
+                return -1;
+            } else if (x != prefix.charAt(i)) {
+                return Character.compare(x, prefix.charAt(i));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * An occurrence of a query in one of the indexed documents.
+     */
+    static class Hit {
+        /**
+         * The name of the document containing the occurrence.
+         */
+        final String document;
+        /**
+         * The offset of the occurrence within the document.
+         */
+        final int offset;
+
+        Hit(String document, int offset) {
+            this.document = document;
+            this.offset = offset;
+        }
+
+        @Override
+        public String toString() {
+            return document + ":" + offset;
+        }
+    }
+}
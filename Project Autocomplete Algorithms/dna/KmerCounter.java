@@ -0,0 +1,248 @@
+package autocomplete.dna;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Counts every k-mer (length-<i>k</i> substring) of a genome for <i>k</i> up to 32. Each k-mer is packed into a
+ * {@code long} with 2 bits per base, counted in a {@link LongIntHashMap}, and the genome is split into chunks that are
+ * counted in parallel and then merged. Windows containing bases other than A, C, G, or T are skipped.
+ */
+class KmerCounter {
+    /**
+     * Longest k-mer that fits in a {@code long} at 2 bits per base.
+     */
+    static final int MAX_K = 32;
+    /**
+     * Minimum number of bases per parallel chunk.
+     */
+    private static final int MIN_CHUNK = 1 << 16;
+    private static final char[] BASES = {'A', 'C', 'G', 'T'};
+
+    private final int k;
+    private final LongIntHashMap counts;
+
+    /**
+     * Constructs an instance by counting all k-mers of the genome.
+     *
+     * @param genome the genome to count.
+     * @param k      the k-mer length, between 1 and 32.
+     * @throws IllegalArgumentException if k is out of range.
+     */
+    KmerCounter(CharSequence genome, int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K + ": " + k);
+        }
+        this.k = k;
+        int starts = Math.max(0, genome.length() - k + 1);
+        if (starts == 0) {
+            // Shorter than one k-mer, so there is nothing to count.
+            this.counts = new LongIntHashMap(0);
+            return;
+        }
+        int chunks = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 4, starts / MIN_CHUNK));
+        int chunkSize = (starts + chunks - 1) / Math.max(1, chunks);
+        List<LongIntHashMap> partials = IntStream.range(0, chunks).parallel()
+                .mapToObj(c -> count(genome, k, c * chunkSize, Math.min(starts, (c + 1) * chunkSize)))
+                .collect(Collectors.toList());
+        LongIntHashMap merged = partials.get(0);
+        for (int c = 1; c < partials.size(); c += 1) {
+            merged.addAll(partials.get(c));
+        }
+        this.counts = merged;
+    }
+
+    /**
+     * Counts the k-mers starting in the given range of the genome.
+     *
+     * @param genome the genome to count.
+     * @param k      the k-mer length.
+     * @param begin  the first start offset (inclusive).
+     * @param end    the last start offset (exclusive).
+     * @return the counts for this range.
+     */
+    private static LongIntHashMap count(CharSequence genome, int k, int begin, int end) {
+        LongIntHashMap counts = new LongIntHashMap(Math.min(end - begin, 1 << 20));
+        long mask = k == MAX_K ? -1L : (1L << (2 * k)) - 1;
+        long code = 0;
+        int valid = 0; // Number of consecutive valid bases ending at the current position
+        int last = Math.min(end + k - 1, genome.length());
+        for (int i = begin; i < last; i += 1) {
+            int base = encode(genome.charAt(i));
+            if (base < 0) {
+                valid = 0;
+                continue;
+            }
+            code = ((code << 2) | base) & mask;
+            valid += 1;
+            if (valid >= k) {
+                counts.add(code, 1);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the number of occurrences of the given k-mer.
+     *
+     * @param kmer a k-mer of this counter's length.
+     * @return the number of occurrences of the k-mer.
+     * @throws IllegalArgumentException if the k-mer has the wrong length or contains other bases.
+     */
+    int count(CharSequence kmer) {
+        if (kmer.length() != k) {
+            throw new IllegalArgumentException("expected length " + k + ": " + kmer);
+        }
+        return counts.get(encode(kmer));
+    }
+
+    /**
+     * Returns the number of distinct k-mers in the genome.
+     *
+     * @return the number of distinct k-mers in the genome.
+     */
+    int distinct() {
+        return counts.size();
+    }
+
+    /**
+     * Returns the n most frequent k-mers with their counts, most frequent first.
+     *
+     * @param n the number of k-mers to return.
+     * @return the n most frequent k-mers with their counts.
+     */
+    /**
+     * Returns up to n of the most frequent k-mers with their counts, most frequent first.
+     *
+     * @param n the maximum number of k-mers to return.
+     * @return the most frequent k-mers and their counts.
+     */
+    List<Map.Entry<String, Integer>> mostFrequent(int n) {
+        // Min-heap of (count, code) pairs holding the best n seen so far.
+        PriorityQueue<long[]> best = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        counts.forEach((code, count) -> {
+            if (best.size() < n) {
+                best.add(new long[]{count, code});
+            } else if (n > 0 && count > best.peek()[0]) {
+                best.poll();
+                best.add(new long[]{count, code});
+            }
+        });
+        List<Map.Entry<String, Integer>> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            long[] entry = best.poll();
+            result.add(new AbstractMap.SimpleImmutableEntry<>(decode(entry[1], k), (int) entry[0]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Returns up to limit k-mers that never occur in the genome, in lexicographic order.
+     *
+     * @param limit the maximum number of absent k-mers to return.
+     * @return k-mers that never occur in the genome.
+     */
+    List<String> absent(int limit) {
+        List<String> result = new ArrayList<>();
+        // With k = 32 every long is a code, so the last code is -1 read as unsigned.
+        long last = k == MAX_K ? -1L : (1L << (2 * k)) - 1;
+        for (long code = 0; result.size() < limit; code += 1) {
+            if (counts.get(code) == 0) {
+                result.add(decode(code, k));
+            }
+            if (code == last) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the longest substring of at most 32 bases that occurs at least twice in the genome, or the empty string
+     * if no base repeats. If a (k + 1)-mer repeats then so does its k-mer prefix, so binary search on k finds the
+     * longest repeat in about five counting passes.
+     *
+     * @param genome the genome to search.
+     * @return the longest repeated substring of at most 32 bases.
+     */
+    static String longestRepeat(CharSequence genome) {
+        int lo = 0;
+        int hi = MAX_K;
+        String best = "";
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            List<Map.Entry<String, Integer>> top = new KmerCounter(genome, mid).mostFrequent(1);
+            if (!top.isEmpty() && top.get(0).getValue() >= 2) {
+                best = top.get(0).getKey();
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the 2-bit code of the given base, or -1 if it is not one of A, C, G, or T.
+     */
+    private static int encode(char base) {
+        switch (base) {
+            case 'A':
+            case 'a':
+                return 0;
+            case 'C':
+            case 'c':
+                return 1;
+            case 'G':
+            case 'g':
+                return 2;
+            case 'T':
+            case 't':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * Returns the packed 2-bit encoding of the given k-mer.
+     *
+     * @param kmer a sequence of at most 32 bases.
+     * @return the packed encoding of the k-mer.
+     * @throws IllegalArgumentException if the k-mer contains other bases.
+     */
+    static long encode(CharSequence kmer) {
+        long code = 0;
+        for (int i = 0; i < kmer.length(); i += 1) {
+            int base = encode(kmer.charAt(i));
+            if (base < 0) {
+                throw new IllegalArgumentException("not a base: " + kmer.charAt(i));
+            }
+            code = (code << 2) | base;
+        }
+        return code;
+    }
+
+    /**
+     * Returns the k-mer represented by the given packed encoding.
+     *
+     * @param code the packed encoding.
+     * @param k    the k-mer length.
+     * @return the decoded k-mer.
+     */
+    static String decode(long code, int k) {
+        char[] result = new char[k];
+        for (int i = k - 1; i >= 0; i -= 1) {
+            result[i] = BASES[(int) (code & 3)];
+            code >>>= 2;
+        }
+        return new String(result);
+    }
+}
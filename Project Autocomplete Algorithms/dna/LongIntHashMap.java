@@ -0,0 +1,159 @@
+package autocomplete.dna;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to {@code int} values with linear probing. Avoids the
+ * boxing and per-entry objects of {@link java.util.HashMap}, which dominate the cost of counting millions of k-mers.
+ *
+ * @see KmerCounter
+ */
+class LongIntHashMap {
+    /**
+     * Maximum fraction of occupied slots before the table doubles.
+     */
+    private static final double LOAD_FACTOR = 0.6;
+    /**
+     * Slot keys; zero marks an empty slot, so the zero key is stored separately.
+     */
+    private long[] keys;
+    /**
+     * Slot values, parallel to {@code keys}.
+     */
+    private int[] values;
+    private boolean hasZero;
+    private int zeroValue;
+    private int size;
+
+    /**
+     * Constructs an empty map sized for the expected number of keys.
+     *
+     * @param expected the expected number of distinct keys.
+     */
+    LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit((int) Math.max(16, Math.min(1 << 30, expected / LOAD_FACTOR)) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+    }
+
+    /**
+     * Adds the given amount to the value associated with the key, treating absent keys as zero.
+     *
+     * @param key   the key to update.
+     * @param delta the amount to add.
+     */
+    void add(long key, int delta) {
+        if (key == 0) {
+            if (!hasZero) {
+                hasZero = true;
+                size += 1;
+            }
+            zeroValue += delta;
+            return;
+        }
+        int mask = keys.length - 1;
+        int i = slot(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] += delta;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = delta;
+        size += 1;
+        if (size > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+    }
+
+    /**
+     * Returns the value associated with the key, or zero if absent.
+     *
+     * @param key the key to look up.
+     * @return the value associated with the key, or zero if absent.
+     */
+    int get(long key) {
+        if (key == 0) {
+            return zeroValue;
+        }
+        int mask = keys.length - 1;
+        int i = slot(key) & mask;
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds every entry of the other map into this map.
+     *
+     * @param other the map to merge into this one.
+     */
+    void addAll(LongIntHashMap other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Calls the consumer once for each entry.
+     *
+     * @param consumer the action to run for each entry.
+     */
+    void forEach(EntryConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0L, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i += 1) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys in this map.
+     *
+     * @return the number of keys in this map.
+     */
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j += 1) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j]) & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /**
+     * Scrambles the key so that k-mers differing only in their last bases spread across the table.
+     */
+    private static int slot(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * Consumer of primitive map entries.
+     */
+    @FunctionalInterface
+    interface EntryConsumer {
+        void accept(long key, int value);
+    }
+}
@@ -0,0 +1,179 @@
+package autocomplete.server;
+
+import autocomplete.Autocomplete;
+import autocomplete.TreeSetAutocomplete;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Embedded HTTP server for {@link Autocomplete} queries on the loopback interface. Serves
+ * {@code GET /complete?q=prefix[&offset=n][&limit=n]} with one match per line, streamed as it is written. Connections
+ * are kept alive, so clients can pipeline requests over one connection. At most a fixed number of queries run at once;
+ * any more are rejected with 503 so that callers back off instead of queueing without bound.
+ *
+ * @see LoadGenerator
+ */
+public class AutocompleteServer implements AutoCloseable {
+    /**
+     * Path to the cities dataset served by {@link #main(String[])}.
+     */
+    private static final String PATH = "data/cities.tsv.gz";
+    /**
+     * Default number of queries allowed in flight.
+     */
+    private static final int MAX_IN_FLIGHT = 1024;
+
+    private final Autocomplete autocomplete;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    /**
+     * Permits for queries in flight.
+     */
+    private final Semaphore inFlight;
+
+    /**
+     * Constructs a server for the given autocomplete on the given loopback port. Call {@link #start()} to serve.
+     *
+     * @param autocomplete the terms to serve; must not be modified while serving.
+     * @param port         the port to listen on, or 0 for any free port.
+     * @param maxInFlight  the maximum number of queries answered at once.
+     * @throws IOException if the port cannot be bound.
+     */
+    public AutocompleteServer(Autocomplete autocomplete, int port, int maxInFlight) throws IOException {
+        this.autocomplete = autocomplete;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), maxInFlight);
+        this.executor = newExecutor();
+        this.inFlight = new Semaphore(maxInFlight);
+        server.createContext("/complete", this::complete);
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts serving queries in the background.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Returns the port this server listens on.
+     *
+     * @return the port this server listens on.
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    /**
+     * Answers one query, streaming matches to the client.
+     *
+     * @param exchange the request and response.
+     * @throws IOException if the client disconnects.
+     */
+    private void complete(HttpExchange exchange) throws IOException {
+        try {
+            if (!inFlight.tryAcquire()) {
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                exchange.sendResponseHeaders(503, -1);
+                return;
+            }
+            try {
+                Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+                String prefix = params.getOrDefault("q", "");
+                List<CharSequence> matches;
+                try {
+                    int offset = Integer.parseInt(params.getOrDefault("offset", "0"));
+                    int limit = Integer.parseInt(params.getOrDefault("limit", String.valueOf(Integer.MAX_VALUE)));
+                    matches = autocomplete.allMatches(prefix, offset, limit);
+                } catch (IllegalArgumentException e) {
+                    exchange.sendResponseHeaders(400, -1);
+                    return;
+                }
+                exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+                exchange.sendResponseHeaders(200, 0); // Chunked, so large match sets stream as they are written
+                Writer out = new BufferedWriter(
+                        new OutputStreamWriter(exchange.getResponseBody(), StandardCharsets.UTF_8));
+                for (CharSequence match : matches) {
+                    out.append(match).append('\n');
+                }
+                out.flush();
+            } finally {
+                inFlight.release();
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Returns the decoded parameters of a raw URI query string.
+     */
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int split = pair.indexOf('=');
+            if (split > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, split), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(split + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    /**
+     * Returns an executor that runs each task on its own virtual thread when the runtime supports them (Java 21+), or
+     * on a cached platform thread pool otherwise.
+     *
+     * @return an executor for request handling.
+     */
+    static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        List<CharSequence> cities = new ArrayList<>();
+        Scanner input = new Scanner(new GZIPInputStream(new FileInputStream(PATH)));
+        while (input.hasNextLine()) {
+            cities.add(input.nextLine().split("\t", 2)[0]);
+        }
+        Autocomplete autocomplete = new TreeSetAutocomplete();
+        autocomplete.addAll(cities);
+        AutocompleteServer server = new AutocompleteServer(autocomplete, port, MAX_IN_FLIGHT);
+        server.start();
+        System.out.println("Serving " + cities.size() + " cities on http://localhost:" + server.port()
+                + "/complete?q=");
+    }
+}
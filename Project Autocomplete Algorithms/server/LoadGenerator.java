@@ -0,0 +1,108 @@
+package autocomplete.server;
+
+import autocomplete.Autocomplete;
+import autocomplete.BinarySearchAutocomplete;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Closed-loop load generator for {@link AutocompleteServer}. Each client sends random short prefixes back to back and
+ * records the latency of each response. Run without arguments to start a server over synthetic terms on localhost, or
+ * pass {@code baseUrl [clients] [requestsPerClient]} to load an existing server.
+ */
+class LoadGenerator {
+    /**
+     * Number of synthetic terms served when no base URL is given.
+     */
+    private static final int TERMS = 1000000;
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+        int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        AutocompleteServer server = null;
+        String baseUrl;
+        if (args.length > 0) {
+            baseUrl = args[0];
+        } else {
+            Autocomplete autocomplete = new BinarySearchAutocomplete();
+            autocomplete.addAll(randomTerms(new Random(0), TERMS));
+            server = new AutocompleteServer(autocomplete, 0, clients);
+            server.start();
+            baseUrl = "http://localhost:" + server.port();
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long[] latencies = new long[clients * requests];
+        AtomicInteger rejected = new AtomicInteger();
+        long begin = System.nanoTime();
+        ExecutorService executor = AutocompleteServer.newExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c += 1) {
+                int id = c;
+                futures.add(executor.submit(() -> {
+                    Random random = new Random(id);
+                    for (int r = 0; r < requests; r += 1) {
+                        String prefix = randomTerms(random, 1).get(0).toString().substring(0, 1 + random.nextInt(3));
+                        URI uri = URI.create(baseUrl + "/complete?limit=100&q="
+                                + URLEncoder.encode(prefix, StandardCharsets.UTF_8));
+                        long start = System.nanoTime();
+                        HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(uri).build(),
+                                HttpResponse.BodyHandlers.ofInputStream());
+                        try (InputStream body = response.body()) {
+                            body.transferTo(OutputStream.nullOutputStream());
+                        }
+                        latencies[id * requests + r] = System.nanoTime() - start;
+                        if (response.statusCode() == 503) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        Arrays.sort(latencies);
+        System.out.printf("%d requests in %.2f s (%.0f req/s), %d rejected%n",
+                latencies.length, seconds, latencies.length / seconds, rejected.get());
+        System.out.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latencies[latencies.length / 2] / 1e6, latencies[(int) (latencies.length * 0.99)] / 1e6,
+                latencies[latencies.length - 1] / 1e6);
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    /**
+     * Returns the given number of random lowercase terms between 3 and 12 characters long.
+     */
+    private static List<CharSequence> randomTerms(Random random, int n) {
+        List<CharSequence> terms = new ArrayList<>(n);
+        for (int i = 0; i < n; i += 1) {
+            char[] term = new char[3 + random.nextInt(10)];
+            for (int j = 0; j < term.length; j += 1) {
+                term[j] = (char) ('a' + random.nextInt(26));
+            }
+            terms.add(new String(term));
+        }
+        return terms;
+    }
+}
@@ -0,0 +1,117 @@
+package minpq;
+
+/**
+ * {@link ExtrinsicMinPQ} decorator whose priorities decay exponentially as a logical clock advances, so that items
+ * waiting longer become more urgent. An item added or re-scored with priority <i>p</i> at clock time <i>s</i> has
+ * priority <i>p</i> &middot; e<sup>-rate (t - s)</sup> at clock time <i>t</i>.
+ * <p>
+ * Every item decays by the same factor, so the order never changes as the clock advances. Each priority is therefore
+ * stored in the delegate in the log domain as ln <i>p</i> + rate &middot; <i>s</i>, which orders items the same way
+ * as their decayed priorities at any time. {@link #advanceClock} only updates the clock in O(1) time, and only
+ * {@link #add} and {@link #changePriority} touch the delegate. Priorities must be positive, and the delegate must
+ * accept any finite priority. Stored keys lose precision once rate &middot; clock approaches 10<sup>12</sup>.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class AgingMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private final ExtrinsicMinPQ<T> delegate;
+    /**
+     * Decay rate per unit of clock time.
+     */
+    private final double rate;
+    private double clock;
+
+    /**
+     * Constructs an instance backed by the given empty priority queue with its clock at 0.
+     *
+     * @param delegate the priority queue to store log-domain priorities in.
+     * @param rate     the decay rate per unit of clock time.
+     * @throws IllegalArgumentException if rate is negative or not finite.
+     */
+    public AgingMinPQ(ExtrinsicMinPQ<T> delegate, double rate) {
+        if (!(rate >= 0) || Double.isInfinite(rate)) {
+            throw new IllegalArgumentException("rate must be non-negative and finite: " + rate);
+        }
+        this.delegate = delegate;
+        this.rate = rate;
+        this.clock = 0;
+    }
+
+    /**
+     * Adds an item whose priority value is the given value at the current clock time.
+     *
+     * @param item     the element to add.
+     * @param priority the positive priority value for the item.
+     * @throws IllegalArgumentException if item is null or already present, or priority is not positive.
+     */
+    @Override
+    public void add(T item, double priority) {
+        delegate.add(item, key(priority));
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return delegate.contains(item);
+    }
+
+    @Override
+    public T peekMin() {
+        return delegate.peekMin();
+    }
+
+    @Override
+    public T removeMin() {
+        return delegate.removeMin();
+    }
+
+    /**
+     * Re-scores the given item so that its priority value is the given value at the current clock time.
+     *
+     * @param item     the element whose associated priority value should be modified.
+     * @param priority the updated positive priority value.
+     * @throws java.util.NoSuchElementException if the item is not present.
+     * @throws IllegalArgumentException         if priority is not positive.
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        delegate.changePriority(item, key(priority));
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Advances the clock, decaying every priority value by a factor of e<sup>-rate &middot; elapsed</sup>.
+     *
+     * @param elapsed the non-negative time to advance the clock by.
+     * @throws IllegalArgumentException if elapsed is negative or not finite.
+     */
+    public void advanceClock(double elapsed) {
+        if (!(elapsed >= 0) || Double.isInfinite(elapsed)) {
+            throw new IllegalArgumentException("elapsed must be non-negative and finite: " + elapsed);
+        }
+        clock += elapsed;
+    }
+
+    /**
+     * Returns the current clock time.
+     *
+     * @return the current clock time.
+     */
+    public double clock() {
+        return clock;
+    }
+
+    /**
+     * Returns the log-domain key of the given priority value at the current clock time.
+     */
+    private double key(double priority) {
+        if (!(priority > 0)) {
+            throw new IllegalArgumentException("Priority must be positive: " + priority);
+        }
+        return Math.log(priority) + rate * clock;
+    }
+}
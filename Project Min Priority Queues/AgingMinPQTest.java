@@ -0,0 +1,116 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks {@link AgingMinPQ} against a reference that records each item's priority and the clock time it was given, and
+ * recomputes every decayed priority before each removal. Without clock advances the priority queue must behave like
+ * any other, which is checked with the shared reference model. Throws {@link AssertionError} on the first mismatch.
+ */
+public class AgingMinPQTest {
+    /**
+     * Relative tolerance when comparing decayed priorities, which go through a logarithm and an exponential.
+     */
+    private static final double EPSILON = 1e-9;
+
+    public static void main(String[] args) {
+        MinPQModelChecker.run(() -> new AgingMinPQ<>(new DaryHeapMinPQ<>(), 0.5), new MinPQModelChecker.Priorities() {
+            @Override
+            public double added(Random random, double floor) {
+                return 1 + random.nextInt(50);
+            }
+
+            @Override
+            public double changed(Random random, double old, double floor) {
+                return 1 + random.nextInt(50);
+            }
+        }, 48);
+        Random random = new Random(48);
+        for (int trial = 0; trial < 200; trial += 1) {
+            decay(random, 1 + random.nextInt(300), random.nextDouble());
+        }
+        olderFirst();
+        System.out.println("AgingMinPQTest passed");
+    }
+
+    /**
+     * Interleaves adds, re-scores and clock advances, and checks that every removal returns an item whose decayed
+     * priority at the current clock is the smallest.
+     */
+    private static void decay(Random random, int items, double rate) {
+        AgingMinPQ<Integer> pq = new AgingMinPQ<>(new DaryHeapMinPQ<>(), rate);
+        Map<Integer, Double> given = new HashMap<>();
+        Map<Integer, Double> givenAt = new HashMap<>();
+        int next = 0;
+        for (int step = 0; step < 20 * items; step += 1) {
+            int op = random.nextInt(10);
+            if (op < 4 && given.size() < items || given.isEmpty()) {
+                double priority = 0.01 + 100 * random.nextDouble();
+                pq.add(next, priority);
+                given.put(next, priority);
+                givenAt.put(next, pq.clock());
+                next += 1;
+            } else if (op < 6) {
+                int item = random.nextInt(next);
+                if (given.containsKey(item)) {
+                    double priority = 0.01 + 100 * random.nextDouble();
+                    pq.changePriority(item, priority);
+                    given.put(item, priority);
+                    givenAt.put(item, pq.clock());
+                }
+            } else if (op < 8) {
+                pq.advanceClock(random.nextDouble());
+            } else {
+                double min = Double.POSITIVE_INFINITY;
+                for (int item : given.keySet()) {
+                    min = Math.min(min, decayed(given, givenAt, item, rate, pq.clock()));
+                }
+                int item = pq.removeMin();
+                check(given.containsKey(item), "removed unknown item " + item);
+                double priority = decayed(given, givenAt, item, rate, pq.clock());
+                check(priority <= min * (1 + EPSILON), "removed " + priority + " but " + min + " was waiting");
+                given.remove(item);
+                givenAt.remove(item);
+            }
+            check(pq.size() == given.size(), "size");
+        }
+    }
+
+    /**
+     * An item given a larger priority earlier can become more urgent than one given a smaller priority now.
+     */
+    private static void olderFirst() {
+        AgingMinPQ<String> pq = new AgingMinPQ<>(new DaryHeapMinPQ<>(), 0.5);
+        pq.add("old", 2);
+        pq.advanceClock(2);
+        // "old" has decayed to 2 / e, about 0.74.
+        pq.add("new", 0.8);
+        check(pq.peekMin().equals("old"), "older item is not the most urgent");
+        pq.changePriority("old", 2);
+        check(pq.peekMin().equals("new"), "re-scoring did not restart the decay");
+        check(pq.clock() == 2, "clock");
+        for (double invalid : new double[]{0, -1, Double.NaN}) {
+            try {
+                pq.add("invalid", invalid);
+                throw new AssertionError("accepted priority " + invalid);
+            } catch (IllegalArgumentException expected) {
+                check(!pq.contains("invalid"), "rejected add changed the priority queue");
+            }
+        }
+        try {
+            pq.advanceClock(-1);
+            throw new AssertionError("clock moved backwards");
+        } catch (IllegalArgumentException expected) {
+            check(pq.clock() == 2, "rejected advance changed the clock");
+        }
+    }
+
+    private static double decayed(Map<Integer, Double> given, Map<Integer, Double> givenAt, int item, double rate,
+                                  double clock) {
+        return given.get(item) * Math.exp(-rate * (clock - givenAt.get(item)));
+    }
+}
@@ -0,0 +1,384 @@
+package minpq;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, optionally bounded {@link ExtrinsicMinPQ} that lets producer and consumer threads wait on each other
+ * instead of polling. {@link #takeMin} and {@link #pollMin} wait until an item is available, and {@link #put} and
+ * {@link #offer} wait until there is room, so producers slow down when consumers fall behind. Every operation is
+ * delegated to a sequential priority queue while holding a single lock.
+ * <p>
+ * The {@link ExtrinsicMinPQ} methods never wait: {@link #add} throws {@link IllegalStateException} when the priority
+ * queue is full and {@link #removeMin} throws {@link NoSuchElementException} when it is empty.
+ * <p>
+ * A producer marks the end of its stream with {@link #close}. Consumers then drain the remaining items, after which
+ * {@link #takeMin} and {@link #pollMin} return null instead of waiting, so consumers need no timeout to notice that the
+ * stream has ended.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see java.util.concurrent.BlockingQueue
+ */
+public class BlockingExtrinsicMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private final ExtrinsicMinPQ<T> delegate;
+    private final int capacity;
+    private final ReentrantLock lock;
+    /**
+     * Signalled when an item is added.
+     */
+    private final Condition notEmpty;
+    /**
+     * Signalled when an item is removed.
+     */
+    private final Condition notFull;
+    /**
+     * Whether {@link #close} has been called. Guarded by the lock.
+     */
+    private boolean closed;
+
+    /**
+     * Constructs an unbounded instance backed by the given empty priority queue.
+     *
+     * @param delegate the sequential priority queue to store items in.
+     */
+    public BlockingExtrinsicMinPQ(ExtrinsicMinPQ<T> delegate) {
+        this(delegate, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs an instance holding at most the given number of items, backed by the given empty priority queue.
+     *
+     * @param delegate the sequential priority queue to store items in.
+     * @param capacity the maximum number of items.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public BlockingExtrinsicMinPQ(ExtrinsicMinPQ<T> delegate, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+    }
+
+    /**
+     * Adds an item with the given priority value, waiting if necessary for room to become available.
+     *
+     * @param item     the element to add.
+     * @param priority the priority value for the item.
+     * @throws InterruptedException     if interrupted while waiting.
+     * @throws IllegalArgumentException if item is null or already present.
+     * @throws IllegalStateException    if this priority queue is closed.
+     */
+    public void put(T item, double priority) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && delegate.size() >= capacity) {
+                notFull.await();
+            }
+            ensureOpen();
+            insert(item, priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds all items with their priority values, waiting if necessary until there is room for all of them at once.
+     *
+     * @param priorities map from item to priority value.
+     * @throws InterruptedException     if interrupted while waiting.
+     * @throws IllegalArgumentException if the items would not fit even in an empty priority queue, or if any item is
+     *                                  null or already present; no items are added in that case.
+     * @throws IllegalStateException    if this priority queue is closed.
+     */
+    public void putAll(Map<T, Double> priorities) throws InterruptedException {
+        if (priorities.size() > capacity) {
+            throw new IllegalArgumentException(priorities.size() + " items exceed capacity " + capacity);
+        }
+        lock.lockInterruptibly();
+        try {
+            while (!closed && priorities.size() > capacity - delegate.size()) {
+                notFull.await();
+            }
+            ensureOpen();
+            delegate.addAll(priorities);
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds an item with the given priority value, waiting up to the given time for room to become available.
+     *
+     * @param item     the element to add.
+     * @param priority the priority value for the item.
+     * @param timeout  how long to wait before giving up.
+     * @param unit     the unit of the timeout.
+     * @return true if the item was added, or false if the time elapsed before room was available.
+     * @throws InterruptedException     if interrupted while waiting.
+     * @throws IllegalArgumentException if item is null or already present.
+     * @throws IllegalStateException    if this priority queue is closed.
+     */
+    public boolean offer(T item, double priority, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (!closed && delegate.size() >= capacity) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            ensureOpen();
+            insert(item, priority);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns and removes the item with the minimum priority value, waiting if necessary for an item to be added.
+     *
+     * @return the item with the minimum priority value, or null if this priority queue is closed and empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T takeMin() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (!closed && delegate.isEmpty()) {
+                notEmpty.await();
+            }
+            return delegate.isEmpty() ? null : remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns and removes the item with the minimum priority value, waiting up to the given time for an item to be
+     * added.
+     *
+     * @param timeout how long to wait before giving up.
+     * @param unit    the unit of the timeout.
+     * @return the item with the minimum priority value, or null if the time elapsed before an item was available or
+     *         this priority queue is closed and empty.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T pollMin(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (delegate.isEmpty()) {
+                if (closed || nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes up to the given number of items in priority order and adds them to the given collection, without
+     * waiting.
+     *
+     * @param collection the collection to add the items to.
+     * @param max        the maximum number of items to remove.
+     * @return the number of items removed.
+     * @throws IllegalArgumentException if max is negative.
+     */
+    public int drainTo(Collection<? super T> collection, int max) {
+        if (max < 0) {
+            throw new IllegalArgumentException("max must be non-negative: " + max);
+        }
+        lock.lock();
+        try {
+            int n = Math.min(max, delegate.size());
+            collection.addAll(delegate.removeMin(n));
+            if (n > 0) {
+                notFull.signalAll();
+            }
+            return n;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the end of the stream: no more items may be added, and consumers waiting on an empty priority queue wake up
+     * and return null. Items already added can still be removed. Closing more than once has no further effect.
+     */
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of additional items that could be added without waiting.
+     *
+     * @return the remaining capacity.
+     */
+    public int remainingCapacity() {
+        lock.lock();
+        try {
+            return capacity - delegate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if this priority queue is full or closed.
+     */
+    @Override
+    public void add(T item, double priority) {
+        lock.lock();
+        try {
+            ensureOpen();
+            if (delegate.size() >= capacity) {
+                throw new IllegalStateException("PQ is full");
+            }
+            insert(item, priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the items do not fit in the remaining capacity, or if this priority queue is
+     *                               closed; no items are added in that case.
+     */
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        lock.lock();
+        try {
+            ensureOpen();
+            if (priorities.size() > capacity - delegate.size()) {
+                throw new IllegalStateException("PQ is full");
+            }
+            delegate.addAll(priorities);
+            notEmpty.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(T item) {
+        lock.lock();
+        try {
+            return delegate.contains(item);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T peekMin() {
+        lock.lock();
+        try {
+            return delegate.peekMin();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public T removeMin() {
+        lock.lock();
+        try {
+            if (delegate.isEmpty()) {
+                throw new NoSuchElementException("PQ is empty");
+            }
+            return remove();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc} Removes all k items while holding the lock, so no other thread's changes are interleaved.
+     */
+    @Override
+    public List<T> removeMin(int k) {
+        lock.lock();
+        try {
+            List<T> result = delegate.removeMin(k);
+            if (k > 0) {
+                notFull.signalAll();
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        lock.lock();
+        try {
+            delegate.changePriority(item, priority);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return delegate.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Throws {@link IllegalStateException} if this priority queue is closed. Must be called while holding the lock.
+     */
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("PQ is closed");
+        }
+    }
+
+    /**
+     * Adds the item to the delegate and wakes a waiting consumer. Must be called while holding the lock.
+     */
+    private void insert(T item, double priority) {
+        delegate.add(item, priority);
+        notEmpty.signal();
+    }
+
+    /**
+     * Removes the minimum from the delegate and wakes a waiting producer. Must be called while holding the lock.
+     */
+    private T remove() {
+        T min = delegate.removeMin();
+        notFull.signal();
+        return min;
+    }
+}
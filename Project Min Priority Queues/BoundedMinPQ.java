@@ -0,0 +1,94 @@
+package minpq;
+
+import java.util.NoSuchElementException;
+
+/**
+ * {@link ExtrinsicMinPQ} that keeps only the k items with the smallest priority values, for top-k views that would
+ * otherwise hold every item. The items are kept in a single {@link MinMaxHeapMinPQ}, whose minimum serves
+ * {@link #removeMin} and whose maximum is the worst kept item. When full, {@link #add} either drops the new item or
+ * evicts the worst item in O(log k) time.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class BoundedMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private final int capacity;
+    /**
+     * The kept items, reachable from both ends.
+     */
+    private final MinMaxHeapMinPQ<T> heap;
+
+    /**
+     * Constructs an empty instance that keeps at most the given number of items.
+     *
+     * @param capacity the maximum number of items to keep.
+     * @throws IllegalArgumentException if capacity is not positive.
+     */
+    public BoundedMinPQ(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.heap = new MinMaxHeapMinPQ<>();
+    }
+
+    /**
+     * Adds an item with the given priority value. If this priority queue is full, either the item is dropped, if its
+     * priority value is no smaller than that of every kept item, or the kept item with the largest priority value is
+     * evicted to make room.
+     *
+     * @param item     the element to add.
+     * @param priority the priority value for the item.
+     * @throws IllegalArgumentException if item is null or already present.
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        if (size() == capacity) {
+            if (priority >= heap.maxPriority()) {
+                return;
+            }
+            heap.removeMax();
+        }
+        heap.add(item, priority);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return heap.contains(item);
+    }
+
+    @Override
+    public T peekMin() {
+        return heap.peekMin();
+    }
+
+    @Override
+    public T removeMin() {
+        return heap.removeMin();
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        heap.changePriority(item, priority);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * Returns the item with the maximum priority value, which is the next to be evicted.
+     *
+     * @return the item with the maximum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public T peekMax() {
+        return heap.peekMax();
+    }
+}
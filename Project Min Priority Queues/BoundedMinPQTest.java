@@ -0,0 +1,96 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks {@link BoundedMinPQ} against a reference that keeps the same bounded set of items: when full, a new item is
+ * dropped if its priority is no smaller than every kept item's, and otherwise an item with the largest kept priority is
+ * evicted. With room for every item it must behave like any other priority queue, which is checked with the shared
+ * reference model. Throws {@link AssertionError} on the first mismatch.
+ */
+public class BoundedMinPQTest {
+
+    public static void main(String[] args) {
+        MinPQModelChecker.run(() -> new BoundedMinPQ<>(1000), new MinPQModelChecker.Priorities() {
+            @Override
+            public double added(Random random, double floor) {
+                return random.nextInt(50);
+            }
+
+            @Override
+            public double changed(Random random, double old, double floor) {
+                return random.nextInt(50);
+            }
+        }, 46);
+        Random random = new Random(46);
+        for (int trial = 0; trial < 200; trial += 1) {
+            evict(random, 1 + random.nextInt(20), 1 + random.nextInt(2000));
+        }
+        System.out.println("BoundedMinPQTest passed");
+    }
+
+    /**
+     * Streams the given number of items through a priority queue of the given capacity, with occasional priority
+     * changes and removals, and checks after every call that it keeps exactly the items the reference keeps.
+     */
+    private static void evict(Random random, int capacity, int items) {
+        BoundedMinPQ<Integer> pq = new BoundedMinPQ<>(capacity);
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int item = 0; item < items; item += 1) {
+            double priority = random.nextInt(100);
+            pq.add(item, priority);
+            if (expected.size() < capacity) {
+                expected.put(item, priority);
+                check(pq.contains(item), "dropped " + item + " with room to spare");
+            } else if (priority >= max(expected)) {
+                check(!pq.contains(item), "kept " + item + " with priority " + priority + " over " + expected);
+            } else {
+                double max = max(expected);
+                expected.put(item, priority);
+                check(pq.contains(item), "dropped " + item + " with priority " + priority + " under " + max);
+                Integer evicted = null;
+                for (int kept : expected.keySet()) {
+                    if (!pq.contains(kept)) {
+                        check(evicted == null, "evicted both " + evicted + " and " + kept);
+                        evicted = kept;
+                    }
+                }
+                check(evicted != null && expected.remove(evicted) == max, "evicted " + evicted + ", not a maximum");
+            }
+            if (random.nextInt(10) == 0) {
+                int kept = expected.keySet().iterator().next();
+                double changed = random.nextInt(100);
+                pq.changePriority(kept, changed);
+                expected.put(kept, changed);
+            }
+            if (random.nextInt(10) == 0) {
+                double min = min(expected);
+                check(expected.remove(pq.removeMin()) == min, "removeMin");
+            }
+            check(pq.size() == expected.size(), "size " + pq.size() + ", expected " + expected.size());
+            if (!expected.isEmpty()) {
+                check(expected.get(pq.peekMax()) == max(expected), "peekMax");
+            }
+        }
+    }
+
+    private static double max(Map<Integer, Double> priorities) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double priority : priorities.values()) {
+            max = Math.max(max, priority);
+        }
+        return max;
+    }
+
+    private static double min(Map<Integer, Double> priorities) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double priority : priorities.values()) {
+            min = Math.min(min, priority);
+        }
+        return min;
+    }
+}
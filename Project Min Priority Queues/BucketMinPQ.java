@@ -0,0 +1,174 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Bucket queue (Dial's algorithm) implementation of the {@link ExtrinsicMinPQ} interface for priorities in a known
+ * range. The range is divided into a fixed number of equal-width buckets, each an intrusive doubly-linked list, so
+ * {@link #add} and {@link #changePriority} take O(1) time and {@link #removeMin} only advances a cursor over buckets.
+ * <p>
+ * Priorities are quantized to their bucket: items in the same bucket are removed in insertion order rather than by
+ * exact priority, and priorities outside the range are clamped into the first or last bucket. Use enough buckets that
+ * the bucket width is below the precision that matters to the client.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class BucketMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private final double min;
+    private final double width;
+    /**
+     * First node of each bucket, or null if the bucket is empty.
+     */
+    private final Node<T>[] heads;
+    /**
+     * Last node of each bucket, or null if the bucket is empty.
+     */
+    private final Node<T>[] tails;
+    /**
+     * {@link Map} of each item to its node in the buckets.
+     */
+    private final Map<T, Node<T>> handles;
+    /**
+     * Every bucket below the cursor is empty.
+     */
+    private int cursor;
+
+    /**
+     * Constructs an empty instance dividing [min, max] into the given number of buckets.
+     *
+     * @param min     the smallest expected priority.
+     * @param max     the largest expected priority.
+     * @param buckets the number of buckets.
+     * @throws IllegalArgumentException if the range is empty or there are no buckets.
+     */
+    @SuppressWarnings("unchecked")
+    public BucketMinPQ(double min, double max, int buckets) {
+        if (!(min < max) || buckets <= 0) {
+            throw new IllegalArgumentException("Invalid range [" + min + ", " + max + "] or buckets " + buckets);
+        }
+        this.min = min;
+        this.width = (max - min) / buckets;
+        this.heads = (Node<T>[]) new Node<?>[buckets];
+        this.tails = (Node<T>[]) new Node<?>[buckets];
+        this.handles = new HashMap<>();
+        this.cursor = buckets;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        Node<T> node = new Node<>(item);
+        handles.put(item, node);
+        append(node, bucketOf(priority));
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return handles.containsKey(item);
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        advance();
+        return heads[cursor].item;
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        advance();
+        Node<T> node = heads[cursor];
+        unlink(node);
+        handles.remove(node.item);
+        return node.item;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        Node<T> node = handles.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        int bucket = bucketOf(priority);
+        if (bucket != node.bucket) {
+            unlink(node);
+            append(node, bucket);
+        }
+    }
+
+    @Override
+    public int size() {
+        return handles.size();
+    }
+
+    /**
+     * Moves the cursor to the first non-empty bucket. Must only be called when this priority queue is not empty.
+     */
+    private void advance() {
+        while (heads[cursor] == null) {
+            cursor += 1;
+        }
+    }
+
+    private int bucketOf(double priority) {
+        if (Double.isNaN(priority)) {
+            throw new IllegalArgumentException("Priority is NaN");
+        }
+        double bucket = Math.floor((priority - min) / width);
+        return (int) Math.max(0, Math.min(heads.length - 1, bucket));
+    }
+
+    private void append(Node<T> node, int bucket) {
+        node.bucket = bucket;
+        node.prev = tails[bucket];
+        node.next = null;
+        if (tails[bucket] == null) {
+            heads[bucket] = node;
+        } else {
+            tails[bucket].next = node;
+        }
+        tails[bucket] = node;
+        cursor = Math.min(cursor, bucket);
+    }
+
+    private void unlink(Node<T> node) {
+        if (node.prev == null) {
+            heads[node.bucket] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tails[node.bucket] = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * An item linked into the list of its bucket.
+     */
+    private static class Node<T> {
+        private final T item;
+        private int bucket;
+        private Node<T> prev;
+        private Node<T> next;
+
+        Node(T item) {
+            this.item = item;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package minpq;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts items to and from bytes so that priority queues can store them outside the Java heap. Decoding the encoding
+ * of an item must return an equal item, and equal items must have equal encodings.
+ *
+ * @param <T> the type of items to convert.
+ * @see ExternalMinPQ
+ */
+public interface Codec<T> {
+    /**
+     * Returns the bytes representing the given item.
+     *
+     * @param item the item to encode.
+     * @return the bytes representing the item.
+     */
+    byte[] encode(T item);
+
+    /**
+     * Returns the item represented by the given bytes.
+     *
+     * @param bytes the bytes returned by {@link #encode}.
+     * @return the item represented by the bytes.
+     */
+    T decode(byte[] bytes);
+
+    /**
+     * Returns a codec that stores strings as UTF-8.
+     *
+     * @return a codec for strings.
+     */
+    static Codec<String> utf8() {
+        return new Codec<>() {
+            @Override
+            public byte[] encode(String item) {
+                return item.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+}
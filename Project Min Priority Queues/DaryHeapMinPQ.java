@@ -0,0 +1,276 @@
+package minpq;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * <i>d</i>-ary heap implementation of the {@link ExtrinsicMinPQ} interface. Items and priorities are kept in parallel
+ * arrays, so the priorities of all siblings are contiguous: with 4 or 8 children they span one or two cache lines
+ * (the JVM does not align arrays to cache lines, so groups are not guaranteed to start on one). Wider nodes make the
+ * heap shallower, which speeds up {@link #add} and {@link #changePriority} decreases at the cost of more comparisons
+ * per level in {@link #removeMin}.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see OptimizedHeapMinPQ
+ */
+public class DaryHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * Default number of children per node.
+     */
+    private static final int DEFAULT_ARITY = 4;
+    /**
+     * Number of children per node.
+     */
+    private final int arity;
+    /**
+     * Items in heap order; {@code items[0]} is the minimum.
+     */
+    private Object[] items;
+    /**
+     * Priority of the item at the same position in {@code items}.
+     */
+    private double[] priorities;
+    /**
+     * {@link Map} of each item to its associated index in the {@code items} heap.
+     */
+    private Map<T, Integer> itemToIndex;
+    private int size;
+    /**
+     * Receives a callback for each comparison and move.
+     */
+    private HeapProbe probe = HeapProbe.NONE;
+
+    /**
+     * Constructs an empty instance with 4 children per node.
+     */
+    public DaryHeapMinPQ() {
+        this(DEFAULT_ARITY);
+    }
+
+    /**
+     * Constructs an empty instance with the given number of children per node.
+     *
+     * @param arity the number of children per node.
+     * @throws IllegalArgumentException if arity is less than 2.
+     */
+    public DaryHeapMinPQ(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("arity must be at least 2: " + arity);
+        }
+        this.arity = arity;
+        this.items = new Object[16];
+        this.priorities = new double[16];
+        this.itemToIndex = new HashMap<>();
+        this.size = 0;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        size += 1;
+        swim(size - 1, item, priority);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return itemToIndex.containsKey(item);
+    }
+
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        for (T item : priorities.keySet()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Null item");
+            } else if (contains(item)) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+        }
+        if (priorities.isEmpty()) {
+            return;
+        } else if (priorities.size() < size) {
+            // Heapifying would touch every existing item; adding a small batch one at a time is cheaper.
+            ExtrinsicMinPQ.super.addAll(priorities);
+            return;
+        }
+        int total = size + priorities.size();
+        if (total > items.length) {
+            items = Arrays.copyOf(items, total);
+            this.priorities = Arrays.copyOf(this.priorities, total);
+        }
+        Map<T, Integer> presized = new HashMap<>((int) (total / 0.75f) + 1);
+        presized.putAll(itemToIndex);
+        itemToIndex = presized;
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            place(size, entry.getKey(), entry.getValue());
+            size += 1;
+        }
+        // Floyd's bottom-up heapify: sink every internal node, deepest first, in O(n) total.
+        for (int i = (size - 2) / arity; i >= 0; i -= 1) {
+            sink(i, itemAt(i), this.priorities[i]);
+        }
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return itemAt(0);
+    }
+
+    /**
+     * Returns the minimum priority value.
+     *
+     * @return the priority value of the item returned by {@link #peekMin}.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    double minPriority() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return priorities[0];
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return pop();
+    }
+
+    @Override
+    public List<T> removeMin(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        } else if (k > size) {
+            throw new NoSuchElementException("PQ contains fewer than " + k + " items");
+        }
+        List<T> result = new ArrayList<>(k);
+        for (int i = 0; i < k; i += 1) {
+            result.add(pop());
+        }
+        return result;
+    }
+
+    /**
+     * Removes and returns the minimum item. Must only be called when this priority queue is not empty.
+     */
+    private T pop() {
+        T min = itemAt(0);
+        itemToIndex.remove(min);
+        size -= 1;
+        T last = itemAt(size);
+        double lastPriority = priorities[size];
+        items[size] = null;
+        if (size > 0) {
+            sink(0, last, lastPriority);
+        }
+        return min;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        Integer index = itemToIndex.get(item);
+        if (index == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        if (priority < priorities[index]) {
+            swim(index, item, priority);
+        } else {
+            sink(index, item, priority);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the probe to call for each comparison and move.
+     *
+     * @param probe the probe, or {@link HeapProbe#NONE}.
+     */
+    void setProbe(HeapProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Places the item into the hole at the given index, first shifting larger ancestors down into the hole.
+     */
+    private void swim(int index, T item, double priority) {
+        while (index > 0) {
+            int parent = (index - 1) / arity;
+            probe.compared();
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, index);
+            index = parent;
+        }
+        place(index, item, priority);
+    }
+
+    /**
+     * Places the item into the hole at the given index, first shifting the smallest child up into the hole while it is
+     * smaller than the item.
+     */
+    private void sink(int index, T item, double priority) {
+        while (true) {
+            int first = arity * index + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int min = first;
+            for (int child = first + 1; child < last; child += 1) {
+                probe.compared();
+                if (priorities[child] < priorities[min]) {
+                    min = child;
+                }
+            }
+            probe.compared();
+            if (priorities[min] >= priority) {
+                break;
+            }
+            move(min, index);
+            index = min;
+        }
+        place(index, item, priority);
+    }
+
+    /**
+     * Moves the entry at one position into another, updating its index.
+     */
+    private void move(int from, int to) {
+        probe.moved();
+        items[to] = items[from];
+        priorities[to] = priorities[from];
+        itemToIndex.put(itemAt(to), to);
+    }
+
+    private void place(int index, T item, double priority) {
+        items[index] = item;
+        priorities[index] = priority;
+        itemToIndex.put(item, index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(int index) {
+        return (T) items[index];
+    }
+}
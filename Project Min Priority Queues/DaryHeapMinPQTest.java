@@ -0,0 +1,28 @@
+package minpq;
+
+import java.util.Random;
+
+/**
+ * Checks {@link DaryHeapMinPQ} of several arities against the shared reference model, including its batch
+ * {@link DaryHeapMinPQ#removeMin(int)} and bottom-up {@link DaryHeapMinPQ#addAll}. Throws {@link AssertionError} on the
+ * first mismatch.
+ */
+public class DaryHeapMinPQTest {
+
+    public static void main(String[] args) {
+        for (int arity : new int[]{2, 3, 4, 8}) {
+            MinPQModelChecker.run(() -> new DaryHeapMinPQ<>(arity), new MinPQModelChecker.Priorities() {
+                @Override
+                public double added(Random random, double floor) {
+                    return random.nextInt(50);
+                }
+
+                @Override
+                public double changed(Random random, double old, double floor) {
+                    return random.nextInt(50);
+                }
+            }, 37);
+        }
+        System.out.println("DaryHeapMinPQTest passed");
+    }
+}
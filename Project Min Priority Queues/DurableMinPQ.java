@@ -0,0 +1,523 @@
+package minpq;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Persistent {@link ExtrinsicMinPQ} decorator that records every change in a write-ahead log in the given directory.
+ * Changes are buffered in memory and only written and forced to disk once every group of records (group commit, 8192
+ * records by default), at compaction, or on {@link #sync} or {@link #close}, so a method returning does not mean its
+ * change is durable: a crash loses every change since the last forced write. Use a group size of 1 to force each
+ * change before the method returns.
+ * <p>
+ * When the log grows large, a new log is started and the old one is compacted into a snapshot of the current items on
+ * a background thread, by replaying the previous snapshot and the old log from disk rather than reading the in-memory
+ * priority queue. On construction the snapshot and log are replayed into a map, and the delegate is rebuilt with one
+ * {@link ExtrinsicMinPQ#addAll} call, which heapify-based implementations complete in linear time. A record torn by a
+ * crash at the end of the log is detected by its checksum and discarded.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see Codec
+ */
+public class DurableMinPQ<T> implements ExtrinsicMinPQ<T>, AutoCloseable {
+    /**
+     * Default number of records per forced write.
+     */
+    private static final int DEFAULT_GROUP_SIZE = 8192;
+    /**
+     * Minimum log size that triggers compaction into a snapshot. Larger snapshots wait for a log of their own size, so
+     * compaction costs amortized constant time per record.
+     */
+    private static final long SNAPSHOT_BYTES = 64L << 20;
+    private static final byte ADD = 1;
+    private static final byte CHANGE = 2;
+    private static final byte REMOVE = 3;
+    private final ExtrinsicMinPQ<T> delegate;
+    private final Codec<T> codec;
+    private final Path snapshot;
+    private final Path log;
+    /**
+     * The log moved aside while it is being compacted into the snapshot.
+     */
+    private final Path compacting;
+    private final int groupSize;
+    /**
+     * Records not yet written to the log file.
+     */
+    private ByteBuffer pending;
+    private FileChannel channel;
+    /**
+     * Number of records written since the log was last forced.
+     */
+    private int unsynced;
+    /**
+     * Number of bytes appended since the log was started.
+     */
+    private long logBytes;
+    /**
+     * Log size that triggers the next compaction.
+     */
+    private long compactAt;
+    private final CRC32C crc;
+    /**
+     * The thread compacting the previous log into the snapshot, or null if none has been started since the last wait.
+     */
+    private Thread compactor;
+    private IOException compactionFailure;
+
+    /**
+     * Constructs an instance that stores its files in the given directory, restoring any items saved there.
+     *
+     * @param delegate  the empty priority queue to store items in memory.
+     * @param codec     the codec for storing items on disk.
+     * @param directory the directory for the snapshot and log files.
+     * @throws IOException if the files cannot be read or created.
+     */
+    public DurableMinPQ(ExtrinsicMinPQ<T> delegate, Codec<T> codec, Path directory) throws IOException {
+        this(delegate, codec, directory, DEFAULT_GROUP_SIZE);
+    }
+
+    /**
+     * Constructs an instance that stores its files in the given directory, restoring any items saved there.
+     *
+     * @param delegate  the empty priority queue to store items in memory.
+     * @param codec     the codec for storing items on disk.
+     * @param directory the directory for the snapshot and log files.
+     * @param groupSize the number of records per forced write; 1 forces every change.
+     * @throws IOException              if the files cannot be read or created.
+     * @throws IllegalArgumentException if the delegate is not empty or groupSize is not positive.
+     */
+    public DurableMinPQ(ExtrinsicMinPQ<T> delegate, Codec<T> codec, Path directory, int groupSize) throws IOException {
+        if (!delegate.isEmpty()) {
+            throw new IllegalArgumentException("delegate must be empty");
+        } else if (groupSize <= 0) {
+            throw new IllegalArgumentException("groupSize must be positive: " + groupSize);
+        }
+        this.delegate = delegate;
+        this.codec = codec;
+        this.snapshot = directory.resolve("snapshot");
+        this.log = directory.resolve("wal");
+        this.compacting = directory.resolve("wal.compacting");
+        this.groupSize = groupSize;
+        this.pending = ByteBuffer.allocate(1 << 16);
+        this.unsynced = 0;
+        this.crc = new CRC32C();
+        Files.createDirectories(directory);
+        delegate.addAll(recover());
+        this.channel = openLog();
+        this.logBytes = channel.size();
+        this.compactAt = compactionThreshold();
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        delegate.add(item, priority);
+        append(ADD, codec.encode(item), priority);
+    }
+
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        delegate.addAll(priorities);
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            append(ADD, codec.encode(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return delegate.contains(item);
+    }
+
+    @Override
+    public T peekMin() {
+        return delegate.peekMin();
+    }
+
+    @Override
+    public T removeMin() {
+        T min = delegate.removeMin();
+        append(REMOVE, codec.encode(min), 0);
+        return min;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        delegate.changePriority(item, priority);
+        append(CHANGE, codec.encode(item), priority);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Writes and forces all logged changes to disk.
+     *
+     * @throws IOException if the log cannot be written.
+     */
+    public void sync() throws IOException {
+        flush();
+        channel.force(false);
+        unsynced = 0;
+    }
+
+    /**
+     * Starts an empty log and compacts the snapshot and the previous log into a new snapshot on a background thread.
+     * Waits for any earlier compaction to finish first.
+     *
+     * @throws IOException if the log cannot be written or an earlier compaction failed.
+     */
+    public void snapshot() throws IOException {
+        awaitCompaction();
+        sync();
+        channel.close();
+        Files.move(log, compacting, StandardCopyOption.ATOMIC_MOVE);
+        channel = openLog();
+        logBytes = 0;
+        compactAt = compactionThreshold();
+        compactor = new Thread(() -> {
+            try {
+                EncodedItems items = new EncodedItems();
+                readSnapshot(items);
+                replay(compacting, items);
+                writeSnapshot(items);
+                // Replaying the compacted log after a crash here is harmless: each record sets one item's final state.
+                Files.delete(compacting);
+            } catch (IOException e) {
+                compactionFailure = e;
+            }
+        }, "minpq-compactor");
+        compactor.setDaemon(true);
+        compactor.start();
+    }
+
+    /**
+     * Forces all logged changes to disk, waits for any compaction to finish, and closes the log. This priority queue
+     * must not be used afterwards.
+     *
+     * @throws IOException if the log cannot be written or a compaction failed.
+     */
+    @Override
+    public void close() throws IOException {
+        sync();
+        channel.close();
+        awaitCompaction();
+    }
+
+    /**
+     * Waits for the background compaction, if any, to finish.
+     *
+     * @throws IOException if the compaction failed or the wait was interrupted.
+     */
+    private void awaitCompaction() throws IOException {
+        if (compactor == null) {
+            return;
+        }
+        try {
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for compaction");
+        }
+        compactor = null;
+        IOException failure = compactionFailure;
+        compactionFailure = null;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Appends a record to the log, forcing the log at the end of each group and compacting it when it is large.
+     */
+    private void append(byte op, byte[] bytes, double priority) {
+        int length = 1 + Integer.BYTES + bytes.length + Double.BYTES + Integer.BYTES;
+        try {
+            if (pending.remaining() < length) {
+                flush();
+                if (pending.capacity() < length) {
+                    pending = ByteBuffer.allocate(length);
+                }
+            }
+            int start = pending.position();
+            pending.put(op).putInt(bytes.length).put(bytes).putDouble(priority);
+            crc.reset();
+            crc.update(pending.array(), start, pending.position() - start);
+            pending.putInt((int) crc.getValue());
+            unsynced += 1;
+            logBytes += length;
+            if (logBytes >= compactAt) {
+                snapshot();
+            } else if (unsynced >= groupSize) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes pending records to the log file without forcing them to disk.
+     */
+    private void flush() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+    }
+
+    /**
+     * Returns the log size at which to compact, based on the size of the last complete snapshot.
+     */
+    private long compactionThreshold() throws IOException {
+        return Math.max(SNAPSHOT_BYTES, Files.exists(snapshot) ? Files.size(snapshot) : 0);
+    }
+
+    private FileChannel openLog() throws IOException {
+        return FileChannel.open(log, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Returns the saved items by replaying the snapshot, any log left by an interrupted compaction, and the log.
+     */
+    private Map<T, Double> recover() throws IOException {
+        EncodedItems items = new EncodedItems();
+        readSnapshot(items);
+        boolean interrupted = Files.exists(compacting);
+        if (interrupted) {
+            replay(compacting, items);
+        }
+        if (Files.exists(log)) {
+            replay(log, items);
+        }
+        if (interrupted) {
+            // Finish the compaction with everything recovered, so both logs can go.
+            writeSnapshot(items);
+            Files.delete(compacting);
+            Files.deleteIfExists(log);
+        }
+        Map<T, Double> decoded = new LinkedHashMap<>((int) (items.size / 0.75f) + 1);
+        for (int i = 0; i < items.keys.length; i += 1) {
+            if (items.keys[i] != null) {
+                decoded.put(codec.decode(items.keys[i]), items.priorities[i]);
+            }
+        }
+        return decoded;
+    }
+
+    /**
+     * Atomically replaces the snapshot with the given encoded items.
+     */
+    private void writeSnapshot(EncodedItems items) throws IOException {
+        Path temp = snapshot.resolveSibling("snapshot.tmp");
+        try (FileChannel file = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(file),
+                    1 << 16));
+            out.writeInt(items.size);
+            for (int i = 0; i < items.keys.length; i += 1) {
+                byte[] bytes = items.keys[i];
+                if (bytes != null) {
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    out.writeDouble(items.priorities[i]);
+                }
+            }
+            out.flush();
+            file.force(true);
+        }
+        Files.move(temp, snapshot, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Adds the encoded items in the snapshot, if any, to the given map.
+     */
+    private void readSnapshot(EncodedItems items) throws IOException {
+        if (!Files.exists(snapshot)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot),
+                1 << 16))) {
+            int n = in.readInt();
+            byte[] bytes = new byte[64];
+            for (int i = 0; i < n; i += 1) {
+                int length = in.readInt();
+                if (bytes.length < length) {
+                    bytes = new byte[Math.max(length, 2 * bytes.length)];
+                }
+                in.readFully(bytes, 0, length);
+                items.put(bytes, 0, length, in.readDouble());
+            }
+        }
+    }
+
+    /**
+     * Applies each record in the given log to the encoded items, then truncates any torn record at the end of the log.
+     * Items stay encoded so that compaction does not need the codec.
+     */
+    private void replay(Path path, EncodedItems items) throws IOException {
+        CRC32C checksum = new CRC32C();
+        // Reused for every record, so that only items seen for the first time are copied.
+        byte[] record = new byte[64];
+        long size = Files.size(path);
+        long valid = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path),
+                1 << 16))) {
+            while (valid < size) {
+                int length;
+                int expected;
+                try {
+                    byte op = in.readByte();
+                    length = in.readInt();
+                    if (length < 0 || length > size - valid) {
+                        break;
+                    }
+                    // The record without its checksum: op, length, item, priority.
+                    if (record.length < 1 + Integer.BYTES + length + Double.BYTES) {
+                        record = new byte[Math.max(1 + Integer.BYTES + length + Double.BYTES, 2 * record.length)];
+                    }
+                    ByteBuffer.wrap(record).put(op).putInt(length);
+                    in.readFully(record, 1 + Integer.BYTES, length + Double.BYTES);
+                    expected = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                int recordLength = 1 + Integer.BYTES + length + Double.BYTES;
+                checksum.reset();
+                checksum.update(record, 0, recordLength);
+                if ((int) checksum.getValue() != expected) {
+                    break;
+                }
+                if (record[0] == REMOVE) {
+                    items.remove(record, 1 + Integer.BYTES, length);
+                } else {
+                    items.put(record, 1 + Integer.BYTES, length,
+                            ByteBuffer.wrap(record).getDouble(1 + Integer.BYTES + length));
+                }
+                valid += recordLength + Integer.BYTES;
+            }
+        }
+        try (FileChannel file = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            if (file.size() > valid) {
+                file.truncate(valid);
+            }
+        }
+    }
+
+    /**
+     * Open-addressing hash map from encoded items to priorities for replaying logs. Items are looked up by a range of
+     * a caller's buffer, so changing or removing an item allocates nothing and adding one copies only its bytes.
+     */
+    private static class EncodedItems {
+        /**
+         * Encoded items by slot, or null for empty slots. Kept at most half full.
+         */
+        private byte[][] keys = new byte[16][];
+        private int[] hashes = new int[16];
+        private double[] priorities = new double[16];
+        private int size;
+
+        /**
+         * Associates the item in the given range with the priority.
+         */
+        void put(byte[] buffer, int offset, int length, double priority) {
+            int hash = hash(buffer, offset, length);
+            int slot = find(buffer, offset, length, hash);
+            priorities[slot] = priority;
+            if (keys[slot] == null) {
+                keys[slot] = Arrays.copyOfRange(buffer, offset, offset + length);
+                hashes[slot] = hash;
+                size += 1;
+                if (2 * size > keys.length) {
+                    resize();
+                }
+            }
+        }
+
+        /**
+         * Removes the item in the given range, if present, shifting later entries of its probe sequence back.
+         */
+        void remove(byte[] buffer, int offset, int length) {
+            int hole = find(buffer, offset, length, hash(buffer, offset, length));
+            if (keys[hole] == null) {
+                return;
+            }
+            int mask = keys.length - 1;
+            for (int i = (hole + 1) & mask; keys[i] != null; i = (i + 1) & mask) {
+                // Move the entry into the hole unless its home slot lies after the hole.
+                if (((i - hashes[i]) & mask) >= ((i - hole) & mask)) {
+                    keys[hole] = keys[i];
+                    hashes[hole] = hashes[i];
+                    priorities[hole] = priorities[i];
+                    hole = i;
+                }
+            }
+            keys[hole] = null;
+            size -= 1;
+        }
+
+        /**
+         * Returns the slot holding the item in the given range, or the empty slot where it would go.
+         */
+        private int find(byte[] buffer, int offset, int length, int hash) {
+            int mask = keys.length - 1;
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                byte[] key = keys[i];
+                if (key == null || hashes[i] == hash
+                        && Arrays.equals(key, 0, key.length, buffer, offset, offset + length)) {
+                    return i;
+                }
+            }
+        }
+
+        private void resize() {
+            byte[][] oldKeys = keys;
+            int[] oldHashes = hashes;
+            double[] oldPriorities = priorities;
+            keys = new byte[2 * oldKeys.length][];
+            hashes = new int[keys.length];
+            priorities = new double[keys.length];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j += 1) {
+                if (oldKeys[j] != null) {
+                    int i = oldHashes[j] & mask;
+                    while (keys[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    hashes[i] = oldHashes[j];
+                    priorities[i] = oldPriorities[j];
+                }
+            }
+        }
+
+        private static int hash(byte[] buffer, int offset, int length) {
+            int h = 1;
+            for (int i = offset; i < offset + length; i += 1) {
+                h = 31 * h + buffer[i];
+            }
+            h *= 0x9e3779b9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
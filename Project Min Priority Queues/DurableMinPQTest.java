@@ -0,0 +1,148 @@
+package minpq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Checks that {@link DurableMinPQ} restores exactly the items and priorities it held after a crash that tore the last
+ * log record, and after a crash in the middle of a compaction. Crashes are simulated by editing the files of a closed
+ * instance into the state a crash would leave. Throws {@link AssertionError} on the first mismatch.
+ */
+public class DurableMinPQTest {
+    private static final Random RANDOM = new Random(373);
+    private static int next = 0;
+
+    public static void main(String[] args) throws IOException {
+        tornTail();
+        crashDuringCompaction();
+        System.out.println("DurableMinPQTest passed");
+    }
+
+    /**
+     * A crash while appending leaves part of a record at the end of the log. Recovery must drop it, and records
+     * appended after recovery must survive the next restart.
+     */
+    private static void tornTail() throws IOException {
+        Path directory = Files.createTempDirectory("minpq-test");
+        Map<String, Double> expected = new HashMap<>();
+        try (DurableMinPQ<String> pq = open(directory)) {
+            randomOperations(pq, expected, 5_000);
+        }
+        // An ADD record whose item should be 9 bytes long, cut off after the first byte.
+        Files.write(directory.resolve("wal"), new byte[]{1, 0, 0, 0, 9, 'x'}, StandardOpenOption.APPEND);
+        verify(directory, expected);
+        try (DurableMinPQ<String> pq = open(directory)) {
+            randomOperations(pq, expected, 5_000);
+        }
+        verify(directory, expected);
+        delete(directory);
+    }
+
+    /**
+     * A crash during compaction leaves the snapshot, the log being compacted, and the new log that took over. Recovery
+     * must combine all three and finish the compaction.
+     */
+    private static void crashDuringCompaction() throws IOException {
+        Path directory = Files.createTempDirectory("minpq-test");
+        Map<String, Double> expected = new HashMap<>();
+        try (DurableMinPQ<String> pq = open(directory)) {
+            randomOperations(pq, expected, 5_000);
+            pq.snapshot();
+            randomOperations(pq, expected, 5_000);
+        }
+        Path log = directory.resolve("wal");
+        byte[] compacting = Files.readAllBytes(log);
+        try (DurableMinPQ<String> pq = open(directory)) {
+            randomOperations(pq, expected, 5_000);
+        }
+        // Without a compaction the log only grows, so the second session's records follow the first's.
+        byte[] all = Files.readAllBytes(log);
+        check(Arrays.equals(all, 0, compacting.length, compacting, 0, compacting.length), "log was rewritten");
+        Files.write(directory.resolve("wal.compacting"), compacting);
+        Files.write(log, Arrays.copyOfRange(all, compacting.length, all.length));
+        verify(directory, expected);
+        try (DurableMinPQ<String> pq = open(directory)) {
+            check(!Files.exists(directory.resolve("wal.compacting")), "compaction not finished by recovery");
+            randomOperations(pq, expected, 1_000);
+        }
+        verify(directory, expected);
+        delete(directory);
+    }
+
+    private static DurableMinPQ<String> open(Path directory) throws IOException {
+        return new DurableMinPQ<>(new DaryHeapMinPQ<>(), Codec.utf8(), directory);
+    }
+
+    /**
+     * Applies random adds, priority changes and removals to both the priority queue and the expected items.
+     */
+    private static void randomOperations(ExtrinsicMinPQ<String> pq, Map<String, Double> expected, int steps) {
+        for (int step = 0; step < steps; step += 1) {
+            int op = RANDOM.nextInt(4);
+            if (op < 2 || expected.isEmpty()) {
+                String item = "item-" + next;
+                next += 1;
+                double priority = RANDOM.nextDouble();
+                pq.add(item, priority);
+                expected.put(item, priority);
+            } else if (op == 2) {
+                String item = "item-" + RANDOM.nextInt(next);
+                if (expected.containsKey(item)) {
+                    double priority = RANDOM.nextDouble();
+                    pq.changePriority(item, priority);
+                    expected.put(item, priority);
+                }
+            } else {
+                expected.remove(pq.removeMin());
+            }
+        }
+    }
+
+    /**
+     * Recovers a copy of the directory, so that draining it does not change the original, and checks that it removes
+     * exactly the expected items in order with their expected priorities.
+     */
+    private static void verify(Path directory, Map<String, Double> expected) throws IOException {
+        Path copy = Files.createTempDirectory("minpq-test");
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.copy(file, copy.resolve(file.getFileName()));
+            }
+        }
+        Map<String, Double> remaining = new HashMap<>(expected);
+        try (DurableMinPQ<String> pq = open(copy)) {
+            check(pq.size() == expected.size(), "recovered " + pq.size() + " items, expected " + expected.size());
+            double last = Double.NEGATIVE_INFINITY;
+            while (!pq.isEmpty()) {
+                String item = pq.removeMin();
+                Double priority = remaining.remove(item);
+                check(priority != null && priority >= last, "recovered " + item + " out of order");
+                last = priority;
+            }
+        }
+        check(remaining.isEmpty(), "items lost: " + remaining.keySet());
+        delete(copy);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,445 @@
+package minpq;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * External-memory implementation of the {@link ExtrinsicMinPQ} interface for more items than fit in the Java heap.
+ * Recently added items are kept in a bounded in-memory heap. When it fills up, its items are written to a new file as a
+ * sorted run. The minimum is the smaller of the in-memory minimum and the smallest head among the runs, which are read
+ * through memory-mapped buffers and merged with a small heap of run cursors. Runs are merged in levels, like a tiered
+ * log-structured merge tree: every {@link #FAN_IN} runs of one level are merged into one run of the next, so each
+ * record is rewritten a logarithmic number of times rather than at every merge.
+ * <p>
+ * Items on disk are never rewritten in place. Instead, an on-disk {@link FingerprintIndex} maps the fingerprint of
+ * each item to the generation of its current entry. {@link #changePriority} on an item on disk adds a new entry with a
+ * new generation, and older entries are skipped as stale when they reach the head of their run. Items are identified
+ * by a 64-bit fingerprint of their {@link Codec} encoding, so two distinct items with the same fingerprint would be
+ * treated as the same item; with millions of items the chance of this is around one in a trillion.
+ * <p>
+ * Files are created in a new temporary directory and deleted by {@link #close}.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class ExternalMinPQ<T> implements ExtrinsicMinPQ<T>, AutoCloseable {
+    /**
+     * Number of runs of one level that are merged into a single run of the next level.
+     */
+    private static final int FAN_IN = 16;
+    /**
+     * Maximum size of a run file, keeping each mapping under the 2 GB limit of a {@link MappedByteBuffer}.
+     */
+    private static final long MAX_RUN_BYTES = 1L << 30;
+    /**
+     * Bytes before the item in each run record: priority, fingerprint, generation, and item length.
+     */
+    private static final int HEADER = 28;
+    private final Codec<T> codec;
+    private final Path directory;
+    private final int bufferSize;
+    /**
+     * Items held in memory, each the current entry for its item.
+     */
+    private final DaryHeapMinPQ<T> buffer;
+    /**
+     * Runs that have records left, by the priority of their head record.
+     */
+    private final DaryHeapMinPQ<Run> runs;
+    /**
+     * Runs that have records left, by level: spilled runs are level 0, and merged runs are one level above their
+     * inputs.
+     */
+    private final List<List<Run>> levels;
+    /**
+     * Exhausted run files that could not be deleted yet, typically because they were still mapped.
+     */
+    private final List<Path> undeleted;
+    private final FingerprintIndex index;
+    /**
+     * Generation of the most recently created entry.
+     */
+    private long generation;
+    private int size;
+    /**
+     * Number of run files created so far, used to name the next one.
+     */
+    private int files;
+
+    /**
+     * Constructs an empty instance storing its files in the default temporary-file directory.
+     *
+     * @param codec      the codec for storing items on disk.
+     * @param bufferSize the maximum number of items to hold in memory.
+     * @throws IOException              if the files cannot be created.
+     * @throws IllegalArgumentException if bufferSize is not positive.
+     */
+    public ExternalMinPQ(Codec<T> codec, int bufferSize) throws IOException {
+        this(codec, Path.of(System.getProperty("java.io.tmpdir")), bufferSize);
+    }
+
+    /**
+     * Constructs an empty instance storing its files in a new directory under the given directory.
+     *
+     * @param codec      the codec for storing items on disk.
+     * @param parent     the directory to create the temporary directory in.
+     * @param bufferSize the maximum number of items to hold in memory.
+     * @throws IOException              if the files cannot be created.
+     * @throws IllegalArgumentException if bufferSize is not positive.
+     */
+    public ExternalMinPQ(Codec<T> codec, Path parent, int bufferSize) throws IOException {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive: " + bufferSize);
+        }
+        this.codec = codec;
+        this.directory = Files.createTempDirectory(parent, "minpq");
+        this.bufferSize = bufferSize;
+        this.buffer = new DaryHeapMinPQ<>();
+        this.runs = new DaryHeapMinPQ<>();
+        this.levels = new ArrayList<>();
+        this.undeleted = new ArrayList<>();
+        this.index = new FingerprintIndex(directory);
+        this.generation = 0;
+        this.size = 0;
+        this.files = 0;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        }
+        long fingerprint = fingerprint(codec.encode(item));
+        if (index.get(fingerprint) >= 0) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        try {
+            insert(item, priority, fingerprint);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        size += 1;
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return index.get(fingerprint(codec.encode(item))) >= 0;
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        settle();
+        if (minInBuffer()) {
+            return buffer.peekMin();
+        }
+        return codec.decode(runs.peekMin().bytes());
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        settle();
+        T min;
+        if (minInBuffer()) {
+            min = buffer.removeMin();
+            index.remove(fingerprint(codec.encode(min)));
+        } else {
+            Run run = runs.peekMin();
+            min = codec.decode(run.bytes());
+            index.remove(run.fingerprint);
+            advance();
+        }
+        size -= 1;
+        return min;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        long fingerprint = fingerprint(codec.encode(item));
+        if (index.get(fingerprint) < 0) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        if (buffer.contains(item)) {
+            buffer.changePriority(item, priority);
+        } else {
+            // The entry on disk becomes stale once the index points to the new generation.
+            try {
+                insert(item, priority, fingerprint);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Deletes all files. This priority queue must not be used afterwards.
+     *
+     * @throws IOException if a file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        while (!runs.isEmpty()) {
+            Files.deleteIfExists(runs.removeMin().path);
+        }
+        levels.clear();
+        for (Path path : undeleted) {
+            Files.deleteIfExists(path);
+        }
+        undeleted.clear();
+        index.close();
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Adds a new current entry for the item to the buffer, spilling the buffer to disk if it is full.
+     */
+    private void insert(T item, double priority, long fingerprint) throws IOException {
+        generation += 1;
+        index.put(fingerprint, generation);
+        buffer.add(item, priority);
+        if (buffer.size() >= bufferSize) {
+            spill();
+        }
+    }
+
+    /**
+     * Returns true if the minimum is in the buffer. Must only be called after {@link #settle} when not empty.
+     */
+    private boolean minInBuffer() {
+        return runs.isEmpty() || !buffer.isEmpty() && buffer.minPriority() <= runs.minPriority();
+    }
+
+    /**
+     * Skips stale records at the heads of the runs until the smallest head, if any, is a current entry.
+     */
+    private void settle() {
+        while (!runs.isEmpty()) {
+            Run run = runs.peekMin();
+            if (index.get(run.fingerprint) == run.generation) {
+                return;
+            }
+            advance();
+        }
+    }
+
+    /**
+     * Moves the run with the smallest head to its next record, deleting the run if it has none left.
+     */
+    private void advance() {
+        Run run = runs.peekMin();
+        if (run.next()) {
+            runs.changePriority(run, run.priority);
+        } else {
+            runs.removeMin();
+            levels.get(run.level).remove(run);
+            delete(run.path);
+        }
+    }
+
+    /**
+     * Deletes an exhausted run file, or remembers it for {@link #close} if it cannot be deleted yet.
+     */
+    private void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // The file is still mapped on some platforms; close retries once the mapping may be gone.
+            undeleted.add(path);
+        }
+    }
+
+    /**
+     * Writes every buffered item to a new sorted run, then merges every level that has {@link #FAN_IN} runs.
+     */
+    private void spill() throws IOException {
+        RunWriter writer = new RunWriter();
+        while (!buffer.isEmpty()) {
+            double priority = buffer.minPriority();
+            byte[] bytes = codec.encode(buffer.removeMin());
+            long fingerprint = fingerprint(bytes);
+            writer.write(priority, fingerprint, index.get(fingerprint), bytes);
+        }
+        open(writer.finish(), 0);
+        // Merging a level adds a run to the next, which the following iteration checks.
+        for (int level = 0; level < levels.size(); level += 1) {
+            if (levels.get(level).size() >= FAN_IN) {
+                merge(level);
+            }
+        }
+    }
+
+    /**
+     * Merges the current entries of the runs of the given level into runs of the next level, as few as the file size
+     * limit allows, dropping stale records. Runs of other levels are left alone.
+     */
+    private void merge(int level) throws IOException {
+        DaryHeapMinPQ<Run> merging = new DaryHeapMinPQ<>();
+        for (Run run : levels.get(level)) {
+            // Take the run out of the main heap by moving it to the front.
+            runs.changePriority(run, Double.NEGATIVE_INFINITY);
+            runs.removeMin();
+            merging.add(run, run.priority);
+        }
+        levels.get(level).clear();
+        RunWriter writer = new RunWriter();
+        while (!merging.isEmpty()) {
+            Run run = merging.peekMin();
+            if (index.get(run.fingerprint) == run.generation) {
+                writer.write(run.priority, run.fingerprint, run.generation, run.bytes());
+            }
+            if (run.next()) {
+                merging.changePriority(run, run.priority);
+            } else {
+                merging.removeMin();
+                delete(run.path);
+            }
+        }
+        open(writer.finish(), level + 1);
+    }
+
+    /**
+     * Maps the given run files and adds them to the merge at the given level.
+     */
+    private void open(List<Path> paths, int level) throws IOException {
+        while (levels.size() <= level) {
+            levels.add(new ArrayList<>());
+        }
+        for (Path path : paths) {
+            Run run = new Run(path, level);
+            if (run.next()) {
+                runs.add(run, run.priority);
+                levels.get(level).add(run);
+            } else {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Returns a nonzero 64-bit fingerprint of the given bytes: FNV-1a followed by the MurmurHash3 finalizer.
+     */
+    private static long fingerprint(byte[] bytes) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    /**
+     * Writes records in sorted order to one or more new run files, starting a new file at the size limit.
+     */
+    private class RunWriter {
+        private final List<Path> paths = new ArrayList<>();
+        private DataOutputStream out;
+        private long written;
+
+        void write(double priority, long fingerprint, long generation, byte[] bytes) throws IOException {
+            if (out == null || written + HEADER + bytes.length > MAX_RUN_BYTES) {
+                finishFile();
+                Path path = directory.resolve("run-" + files);
+                files += 1;
+                paths.add(path);
+                out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+                written = 0;
+            }
+            out.writeDouble(priority);
+            out.writeLong(fingerprint);
+            out.writeLong(generation);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+            written += HEADER + bytes.length;
+        }
+
+        List<Path> finish() throws IOException {
+            finishFile();
+            return paths;
+        }
+
+        private void finishFile() throws IOException {
+            if (out != null) {
+                out.close();
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * A memory-mapped run file and the header of its current record.
+     */
+    private static class Run {
+        private final Path path;
+        private final int level;
+        private final MappedByteBuffer data;
+        /**
+         * Start of the record after the current one.
+         */
+        private int position;
+        private double priority;
+        private long fingerprint;
+        private long generation;
+        private int offset;
+        private int length;
+
+        Run(Path path, int level) throws IOException {
+            this.path = path;
+            this.level = level;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            this.position = 0;
+        }
+
+        /**
+         * Reads the header of the next record.
+         *
+         * @return false if there are no records left.
+         */
+        boolean next() {
+            if (position >= data.limit()) {
+                return false;
+            }
+            priority = data.getDouble(position);
+            fingerprint = data.getLong(position + 8);
+            generation = data.getLong(position + 16);
+            length = data.getInt(position + 24);
+            offset = position + HEADER;
+            position = offset + length;
+            return true;
+        }
+
+        /**
+         * Returns the encoded item of the current record.
+         */
+        byte[] bytes() {
+            byte[] bytes = new byte[length];
+            data.get(offset, bytes);
+            return bytes;
+        }
+    }
+}
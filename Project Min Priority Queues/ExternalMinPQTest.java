@@ -0,0 +1,85 @@
+package minpq;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Checks {@link ExternalMinPQ} against a {@link HashMap} reference model with a buffer small enough that almost every
+ * item is spilled to disk and the runs are merged many times, then checks that {@link ExternalMinPQ#close} removes
+ * every file. Throws {@link AssertionError} on the first mismatch.
+ */
+public class ExternalMinPQTest {
+    /**
+     * Items held in memory; every 8th add spills a run, so runs are merged into several levels.
+     */
+    private static final int BUFFER_SIZE = 8;
+
+    public static void main(String[] args) throws IOException {
+        Path parent = Files.createTempDirectory("minpq-test");
+        Random random = new Random(373);
+        Map<String, Double> expected = new HashMap<>();
+        List<String> added = new ArrayList<>();
+        ExternalMinPQ<String> pq = new ExternalMinPQ<>(Codec.utf8(), parent, BUFFER_SIZE);
+        for (int step = 0; step < 50_000; step += 1) {
+            int op = random.nextInt(10);
+            if (op < 5 || expected.isEmpty()) {
+                String item = "item-" + added.size();
+                double priority = random.nextDouble();
+                pq.add(item, priority);
+                expected.put(item, priority);
+                added.add(item);
+            } else if (op < 7) {
+                // Most items live on disk, so this usually leaves a stale record behind in some run.
+                String item = added.get(random.nextInt(added.size()));
+                if (expected.containsKey(item)) {
+                    double priority = random.nextDouble();
+                    pq.changePriority(item, priority);
+                    expected.put(item, priority);
+                }
+            } else if (op < 9) {
+                String item = pq.removeMin();
+                check(expected.get(item) != null && expected.get(item) == min(expected), "removeMin returned " + item);
+                expected.remove(item);
+            } else {
+                String item = added.get(random.nextInt(added.size()));
+                check(pq.contains(item) == expected.containsKey(item), "contains " + item);
+            }
+            check(pq.size() == expected.size(), "size " + pq.size() + " at step " + step);
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        while (!expected.isEmpty()) {
+            String item = pq.removeMin();
+            Double priority = expected.remove(item);
+            check(priority != null && priority >= last, "drained " + item + " out of order");
+            last = priority;
+        }
+        check(pq.isEmpty(), "empty after drain");
+        pq.close();
+        try (Stream<Path> files = Files.list(parent)) {
+            check(files.findAny().isEmpty(), "files left after close");
+        }
+        Files.delete(parent);
+        System.out.println("ExternalMinPQTest passed");
+    }
+
+    private static double min(Map<String, Double> priorities) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double priority : priorities.values()) {
+            min = Math.min(min, priority);
+        }
+        return min;
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
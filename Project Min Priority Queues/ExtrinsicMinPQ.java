@@ -1,5 +1,10 @@
 package minpq;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
 /**
  * Priority queue where objects have <b>extrinsic priority</b>. While {@link java.util.PriorityQueue} relies on objects'
  * {@link Comparable} (or a {@link java.util.Comparator} object), this interface requires priority values represented as
@@ -10,6 +15,19 @@ package minpq;
  * @see UnsortedArrayMinPQ
  * @see HeapMinPQ
  * @see OptimizedHeapMinPQ
+ * @see DaryHeapMinPQ
+ * @see PairingHeapMinPQ
+ * @see RadixHeapMinPQ
+ * @see BucketMinPQ
+ * @see MultiQueueMinPQ
+ * @see BlockingExtrinsicMinPQ
+ * @see ExternalMinPQ
+ * @see DurableMinPQ
+ * @see BoundedMinPQ
+ * @see MinMaxHeapMinPQ
+ * @see AgingMinPQ
+ * @see InstrumentedMinPQ
+ * @see TraceRecordingMinPQ
  */
 public interface ExtrinsicMinPQ<T> {
 
@@ -22,6 +40,26 @@ public interface ExtrinsicMinPQ<T> {
      */
     void add(T item, double priority);
 
+    /**
+     * Adds all of the given items with their associated priority values. Implementations may build their structure in
+     * bulk, which is faster than adding the items one at a time.
+     *
+     * @param priorities map of each element to add to its priority value.
+     * @throws IllegalArgumentException if any item is null or already present; no items are added in that case.
+     */
+    default void addAll(Map<T, Double> priorities) {
+        for (T item : priorities.keySet()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Null item");
+            } else if (contains(item)) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+        }
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
     /**
      * Returns true if the given item is in this priority queue.
      *
@@ -46,6 +84,28 @@ public interface ExtrinsicMinPQ<T> {
      */
     T removeMin();
 
+    /**
+     * Returns and removes the k items with the minimum priority values, in increasing order of priority.
+     *
+     * @param k the number of items to remove.
+     * @return the k items with the minimum priority values.
+     * @throws IllegalArgumentException if k is negative.
+     * @throws NoSuchElementException   if this priority queue contains fewer than k items; no items are removed in that
+     *                                  case.
+     */
+    default List<T> removeMin(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be non-negative: " + k);
+        } else if (k > size()) {
+            throw new NoSuchElementException("PQ contains fewer than " + k + " items");
+        }
+        List<T> result = new ArrayList<>(k);
+        for (int i = 0; i < k; i += 1) {
+            result.add(removeMin());
+        }
+        return result;
+    }
+
     /**
      * Updates the given items' associated priority value.
      *
@@ -0,0 +1,185 @@
+package minpq;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Hash table from 64-bit item fingerprints to generation numbers, stored in memory-mapped files so that it occupies
+ * the page cache rather than the Java heap. Uses linear probing with backward-shift deletion and doubles in size when
+ * half full. Each slot is 16 bytes: the fingerprint, where 0 marks an empty slot, then the generation.
+ *
+ * @see ExternalMinPQ
+ */
+class FingerprintIndex implements AutoCloseable {
+    private static final int SLOT = 16;
+    /**
+     * Slots per mapped segment, keeping each mapping well under the 2 GB limit of a {@link MappedByteBuffer}.
+     */
+    private static final int SEGMENT_SLOTS = 1 << 26;
+    private final Path directory;
+    private Path file;
+    private MappedByteBuffer[] segments;
+    private long mask;
+    private long size;
+    /**
+     * Number of files created so far, used to name the next one.
+     */
+    private int files;
+
+    /**
+     * Constructs an empty index stored in files in the given directory.
+     *
+     * @param directory the directory to create the index files in.
+     * @throws IOException if the index file cannot be created.
+     */
+    FingerprintIndex(Path directory) throws IOException {
+        this.directory = directory;
+        this.files = 0;
+        allocate(1 << 16);
+    }
+
+    /**
+     * Returns the generation recorded for the given fingerprint.
+     *
+     * @param fingerprint a nonzero fingerprint.
+     * @return the generation, or -1 if the fingerprint is not present.
+     */
+    long get(long fingerprint) {
+        for (long i = fingerprint & mask; ; i = (i + 1) & mask) {
+            long f = fingerprintAt(i);
+            if (f == fingerprint) {
+                return generationAt(i);
+            } else if (f == 0) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Records the generation for the given fingerprint, replacing any previous generation.
+     *
+     * @param fingerprint a nonzero fingerprint.
+     * @param generation  the non-negative generation.
+     * @throws IOException if the index must grow and the new file cannot be created.
+     */
+    void put(long fingerprint, long generation) throws IOException {
+        if (2 * (size + 1) > mask + 1) {
+            grow();
+        }
+        long i = fingerprint & mask;
+        for (long f = fingerprintAt(i); f != 0 && f != fingerprint; f = fingerprintAt(i)) {
+            i = (i + 1) & mask;
+        }
+        if (fingerprintAt(i) == 0) {
+            size += 1;
+        }
+        set(i, fingerprint, generation);
+    }
+
+    /**
+     * Removes the given fingerprint if present.
+     *
+     * @param fingerprint a nonzero fingerprint.
+     */
+    void remove(long fingerprint) {
+        long hole = fingerprint & mask;
+        for (long f = fingerprintAt(hole); f != fingerprint; f = fingerprintAt(hole)) {
+            if (f == 0) {
+                return;
+            }
+            hole = (hole + 1) & mask;
+        }
+        size -= 1;
+        // Shift back later entries of the probe run that can no longer be reached past the hole.
+        for (long j = (hole + 1) & mask; ; j = (j + 1) & mask) {
+            long f = fingerprintAt(j);
+            if (f == 0) {
+                break;
+            }
+            long home = f & mask;
+            boolean reachable = hole <= j ? hole < home && home <= j : hole < home || home <= j;
+            if (!reachable) {
+                set(hole, f, generationAt(j));
+                hole = j;
+            }
+        }
+        set(hole, 0, 0);
+    }
+
+    /**
+     * Returns the number of fingerprints in this index.
+     *
+     * @return the number of fingerprints.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Deletes the index file.
+     *
+     * @throws IOException if the file cannot be deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        segments = null;
+        Files.deleteIfExists(file);
+    }
+
+    private void grow() throws IOException {
+        Path old = file;
+        MappedByteBuffer[] oldSegments = segments;
+        long oldCapacity = mask + 1;
+        allocate(2 * oldCapacity);
+        for (long i = 0; i < oldCapacity; i += 1) {
+            MappedByteBuffer segment = oldSegments[(int) (i / SEGMENT_SLOTS)];
+            int offset = (int) (i % SEGMENT_SLOTS) * SLOT;
+            long f = segment.getLong(offset);
+            if (f != 0) {
+                long j = f & mask;
+                while (fingerprintAt(j) != 0) {
+                    j = (j + 1) & mask;
+                }
+                set(j, f, segment.getLong(offset + 8));
+            }
+        }
+        Files.deleteIfExists(old);
+    }
+
+    /**
+     * Replaces the table with an empty one of the given power-of-two capacity in a new file, keeping the size.
+     */
+    private void allocate(long capacity) throws IOException {
+        file = directory.resolve("index-" + files);
+        files += 1;
+        int count = (int) ((capacity + SEGMENT_SLOTS - 1) / SEGMENT_SLOTS);
+        segments = new MappedByteBuffer[count];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long bytes = Math.min(capacity, SEGMENT_SLOTS) * SLOT;
+            for (int s = 0; s < count; s += 1) {
+                segments[s] = channel.map(FileChannel.MapMode.READ_WRITE, s * bytes, bytes);
+            }
+        }
+        mask = capacity - 1;
+    }
+
+    private long fingerprintAt(long slot) {
+        return segments[(int) (slot / SEGMENT_SLOTS)].getLong((int) (slot % SEGMENT_SLOTS) * SLOT);
+    }
+
+    private long generationAt(long slot) {
+        return segments[(int) (slot / SEGMENT_SLOTS)].getLong((int) (slot % SEGMENT_SLOTS) * SLOT + 8);
+    }
+
+    private void set(long slot, long fingerprint, long generation) {
+        MappedByteBuffer segment = segments[(int) (slot / SEGMENT_SLOTS)];
+        int offset = (int) (slot % SEGMENT_SLOTS) * SLOT;
+        segment.putLong(offset, fingerprint);
+        segment.putLong(offset + 8, generation);
+    }
+}
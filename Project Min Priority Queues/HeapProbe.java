@@ -0,0 +1,34 @@
+package minpq;
+
+/**
+ * Callbacks from a heap implementation for each priority comparison and each swap or move it makes to restore heap
+ * order: a swap or a move into a hole in an array heap, a link of one tree under another in a pairing heap, or a move
+ * of an entry to another bucket in a radix heap. Heaps call {@link #NONE} by default, whose empty methods the JIT
+ * compiler removes.
+ *
+ * @see InstrumentedMinPQ
+ */
+interface HeapProbe {
+    /**
+     * Probe that ignores every callback.
+     */
+    HeapProbe NONE = new HeapProbe() {
+        @Override
+        public void compared() {
+        }
+
+        @Override
+        public void moved() {
+        }
+    };
+
+    /**
+     * Called when the heap compares two priorities.
+     */
+    void compared();
+
+    /**
+     * Called when the heap swaps two items, or moves one item into a hole.
+     */
+    void moved();
+}
@@ -0,0 +1,203 @@
+package minpq;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary heap priority queue over dense {@code int} items in the range [0, capacity). Stores the heap, each item's heap
+ * position, and each item's priority in primitive arrays, so no operation allocates or boxes. Mirrors the
+ * {@link ExtrinsicMinPQ} operations for clients such as graph searches whose vertices can be numbered.
+ *
+ * @see ExtrinsicMinPQ
+ * @see OptimizedHeapMinPQ
+ */
+public class IndexedIntMinPQ {
+    /**
+     * Items in heap order; {@code heap[0]} is the minimum.
+     */
+    private final int[] heap;
+    /**
+     * Position of each item in {@code heap}, or -1 if the item is not present.
+     */
+    private final int[] pos;
+    /**
+     * Priority of each item in this priority queue.
+     */
+    private final double[] keys;
+    private int size;
+
+    /**
+     * Constructs an empty instance for items in the range [0, capacity).
+     *
+     * @param capacity the number of distinct items.
+     */
+    public IndexedIntMinPQ(int capacity) {
+        heap = new int[capacity];
+        pos = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(pos, -1);
+        size = 0;
+    }
+
+    /**
+     * Adds an item with the given priority value.
+     *
+     * @param item     the element to add.
+     * @param priority the priority value for the item.
+     * @throws IllegalArgumentException if item is out of range or already present.
+     */
+    public void add(int item, double priority) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        heap[size] = item;
+        pos[item] = size;
+        keys[item] = priority;
+        size += 1;
+        swim(size - 1);
+    }
+
+    /**
+     * Returns true if the given item is in this priority queue.
+     *
+     * @param item element to be checked for containment.
+     * @return true if the given item is in this priority queue.
+     * @throws IllegalArgumentException if item is out of range.
+     */
+    public boolean contains(int item) {
+        if (item < 0 || item >= pos.length) {
+            throw new IllegalArgumentException("Item out of range " + item);
+        }
+        return pos[item] >= 0;
+    }
+
+    /**
+     * Returns the item with the minimum priority value.
+     *
+     * @return the item with the minimum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return heap[0];
+    }
+
+    /**
+     * Returns and removes the item with the minimum priority value.
+     *
+     * @return the item with the minimum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public int removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        int min = heap[0];
+        size -= 1;
+        pos[min] = -1;
+        if (size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            sink(0);
+        }
+        return min;
+    }
+
+    /**
+     * Updates the given item's associated priority value.
+     *
+     * @param item     the element whose associated priority value should be modified.
+     * @param priority the updated priority value.
+     * @throws NoSuchElementException if the item is not present.
+     */
+    public void changePriority(int item, double priority) {
+        if (!contains(item)) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        double old = keys[item];
+        keys[item] = priority;
+        if (priority < old) {
+            swim(pos[item]);
+        } else {
+            sink(pos[item]);
+        }
+    }
+
+    /**
+     * Returns the priority value associated with the given item.
+     *
+     * @param item the element whose priority value should be returned.
+     * @return the priority value associated with the item.
+     * @throws NoSuchElementException if the item is not present.
+     */
+    public double priority(int item) {
+        if (!contains(item)) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        return keys[item];
+    }
+
+    /**
+     * Returns the number of items in this priority queue.
+     *
+     * @return the number of elements in this priority queue.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns true if this priority queue contains no items.
+     *
+     * @return true if this priority queue contains no items.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Moves the item at the given position up until its parent is no larger, shifting parents down into the hole.
+     */
+    private void swim(int index) {
+        int item = heap[index];
+        double key = keys[item];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (keys[heap[parent]] <= key) {
+                break;
+            }
+            heap[index] = heap[parent];
+            pos[heap[index]] = index;
+            index = parent;
+        }
+        heap[index] = item;
+        pos[item] = index;
+    }
+
+    /**
+     * Moves the item at the given position down until no child is smaller, shifting children up into the hole.
+     */
+    private void sink(int index) {
+        int item = heap[index];
+        double key = keys[item];
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child += 1;
+            }
+            if (keys[heap[child]] >= key) {
+                break;
+            }
+            heap[index] = heap[child];
+            pos[heap[index]] = index;
+            index = child;
+        }
+        heap[index] = item;
+        pos[item] = index;
+    }
+}
@@ -0,0 +1,323 @@
+package minpq;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ExtrinsicMinPQ} decorator that records how a priority queue is used: the number of calls and a latency
+ * histogram for each operation, the maximum size, and, for {@link OptimizedHeapMinPQ}, {@link DaryHeapMinPQ},
+ * {@link MinMaxHeapMinPQ}, {@link PairingHeapMinPQ} and {@link RadixHeapMinPQ}, the number of priority comparisons and
+ * moves inside the heap. {@link HeapMinPQ} delegates to {@link java.util.PriorityQueue}, so its heap is not counted.
+ * Statistics are available from the getters, from {@link #toString}, and over JMX after {@link #register}. Recording
+ * can be switched off at any time, after which each operation costs one extra branch.
+ * <p>
+ * For example, to see how often a shortest paths search decreases a priority for each vertex it removes:
+ * <pre>{@code
+ * List<InstrumentedMinPQ<V>> pqs = new ArrayList<>();
+ * new DijkstraSolver<>(graph, start, () -> {
+ *     InstrumentedMinPQ<V> pq = new InstrumentedMinPQ<>(new DaryHeapMinPQ<>());
+ *     pqs.add(pq);
+ *     return pq;
+ * });
+ * System.out.println(pqs.get(0));
+ * }</pre>
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see InstrumentedMinPQMXBean
+ */
+public class InstrumentedMinPQ<T> implements ExtrinsicMinPQ<T>, InstrumentedMinPQMXBean {
+    /**
+     * Number of latency histogram buckets, one per power of 2 nanoseconds.
+     */
+    private static final int BUCKETS = Long.SIZE;
+    private final ExtrinsicMinPQ<T> delegate;
+    private final LongAdder[] counts;
+    private final AtomicLongArray[] latencies;
+    private final LongAdder comparisons;
+    private final LongAdder moves;
+    private final AtomicInteger maxSize;
+    /**
+     * Probe passed to the delegate while recording.
+     */
+    private final HeapProbe probe;
+    private volatile boolean enabled;
+
+    /**
+     * The recorded operations.
+     */
+    public enum Operation {
+        ADD, ADD_ALL, CONTAINS, PEEK_MIN, REMOVE_MIN, CHANGE_PRIORITY
+    }
+
+    /**
+     * Constructs an instance recording the operations on the given priority queue.
+     *
+     * @param delegate the priority queue to record.
+     */
+    public InstrumentedMinPQ(ExtrinsicMinPQ<T> delegate) {
+        this.delegate = delegate;
+        int n = Operation.values().length;
+        this.counts = new LongAdder[n];
+        this.latencies = new AtomicLongArray[n];
+        for (int i = 0; i < n; i += 1) {
+            counts[i] = new LongAdder();
+            latencies[i] = new AtomicLongArray(BUCKETS);
+        }
+        this.comparisons = new LongAdder();
+        this.moves = new LongAdder();
+        this.maxSize = new AtomicInteger(delegate.size());
+        this.probe = new HeapProbe() {
+            @Override
+            public void compared() {
+                comparisons.increment();
+            }
+
+            @Override
+            public void moved() {
+                moves.increment();
+            }
+        };
+        setEnabled(true);
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (!enabled) {
+            delegate.add(item, priority);
+            return;
+        }
+        long start = System.nanoTime();
+        delegate.add(item, priority);
+        record(Operation.ADD, start);
+    }
+
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        if (!enabled) {
+            delegate.addAll(priorities);
+            return;
+        }
+        long start = System.nanoTime();
+        delegate.addAll(priorities);
+        record(Operation.ADD_ALL, start);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        if (!enabled) {
+            return delegate.contains(item);
+        }
+        long start = System.nanoTime();
+        boolean result = delegate.contains(item);
+        record(Operation.CONTAINS, start);
+        return result;
+    }
+
+    @Override
+    public T peekMin() {
+        if (!enabled) {
+            return delegate.peekMin();
+        }
+        long start = System.nanoTime();
+        T result = delegate.peekMin();
+        record(Operation.PEEK_MIN, start);
+        return result;
+    }
+
+    @Override
+    public T removeMin() {
+        if (!enabled) {
+            return delegate.removeMin();
+        }
+        long start = System.nanoTime();
+        T result = delegate.removeMin();
+        record(Operation.REMOVE_MIN, start);
+        return result;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        if (!enabled) {
+            delegate.changePriority(item, priority);
+            return;
+        }
+        long start = System.nanoTime();
+        delegate.changePriority(item, priority);
+        record(Operation.CHANGE_PRIORITY, start);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    /**
+     * Returns the number of calls to the given operation.
+     *
+     * @param operation the operation.
+     * @return the number of calls.
+     */
+    public long count(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    /**
+     * Returns an upper bound on the given percentile of the latency of the given operation.
+     *
+     * @param operation  the operation.
+     * @param percentile the percentile, between 0 and 100.
+     * @return the upper bound in nanoseconds of the histogram bucket containing the percentile, or 0 if there were no
+     * calls.
+     */
+    public long latencyPercentile(Operation operation, double percentile) {
+        AtomicLongArray histogram = latencies[operation.ordinal()];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i += 1) {
+            total += histogram.get(i);
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i += 1) {
+            seen += histogram.get(i);
+            if (seen > 0 && seen >= rank) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (2L << i) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Publishes the statistics over JMX under the name {@code minpq:type=InstrumentedMinPQ,name=<name>}.
+     *
+     * @param name the name distinguishing this priority queue.
+     * @return the registered object name, for unregistering.
+     * @throws JMException if the name is taken or invalid.
+     */
+    public ObjectName register(String name) throws JMException {
+        ObjectName objectName = new ObjectName("minpq:type=InstrumentedMinPQ,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        return objectName;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        HeapProbe target = enabled ? probe : HeapProbe.NONE;
+        if (delegate instanceof OptimizedHeapMinPQ) {
+            ((OptimizedHeapMinPQ<T>) delegate).setProbe(target);
+        } else if (delegate instanceof DaryHeapMinPQ) {
+            ((DaryHeapMinPQ<T>) delegate).setProbe(target);
+        } else if (delegate instanceof MinMaxHeapMinPQ) {
+            ((MinMaxHeapMinPQ<T>) delegate).setProbe(target);
+        } else if (delegate instanceof PairingHeapMinPQ) {
+            ((PairingHeapMinPQ<T>) delegate).setProbe(target);
+        } else if (delegate instanceof RadixHeapMinPQ) {
+            ((RadixHeapMinPQ<T>) delegate).setProbe(target);
+        }
+        this.enabled = enabled;
+    }
+
+    @Override
+    public Map<String, Long> getOperationCounts() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            result.put(operation.name(), count(operation));
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, long[]> getLatencyHistograms() {
+        Map<String, long[]> result = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            AtomicLongArray histogram = latencies[operation.ordinal()];
+            long[] copy = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i += 1) {
+                copy[i] = histogram.get(i);
+            }
+            result.put(operation.name(), copy);
+        }
+        return result;
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public long getMoves() {
+        return moves.sum();
+    }
+
+    @Override
+    public int getSize() {
+        return size();
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize.get();
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i < counts.length; i += 1) {
+            counts[i].reset();
+            for (int j = 0; j < BUCKETS; j += 1) {
+                latencies[i].set(j, 0);
+            }
+        }
+        comparisons.reset();
+        moves.reset();
+        maxSize.set(size());
+    }
+
+    /**
+     * Returns a summary of the statistics: calls and median and 99th percentile latency bounds per operation, then the
+     * heap counters.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            long count = count(operation);
+            if (count > 0) {
+                result.append(String.format("%-16s %12d calls  p50 <= %d ns  p99 <= %d ns%n", operation, count,
+                        latencyPercentile(operation, 50), latencyPercentile(operation, 99)));
+            }
+        }
+        long removes = count(Operation.REMOVE_MIN);
+        if (removes > 0) {
+            result.append(String.format("changePriority per removeMin: %.2f%n",
+                    (double) count(Operation.CHANGE_PRIORITY) / removes));
+        }
+        result.append(String.format("comparisons %d  moves %d  max size %d", getComparisons(), getMoves(),
+                getMaxSize()));
+        return result.toString();
+    }
+
+    /**
+     * Records one call to the operation that started at the given time.
+     */
+    private void record(Operation operation, long start) {
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        counts[operation.ordinal()].increment();
+        latencies[operation.ordinal()].incrementAndGet(Long.SIZE - 1 - Long.numberOfLeadingZeros(elapsed));
+        int size = delegate.size();
+        if (size > maxSize.get()) {
+            maxSize.accumulateAndGet(size, Math::max);
+        }
+    }
+}
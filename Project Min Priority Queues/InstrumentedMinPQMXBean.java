@@ -0,0 +1,72 @@
+package minpq;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link InstrumentedMinPQ}, published through JMX by {@link InstrumentedMinPQ#register}.
+ *
+ * @see InstrumentedMinPQ
+ */
+public interface InstrumentedMinPQMXBean {
+    /**
+     * Returns true if operations are being recorded.
+     *
+     * @return true if operations are being recorded.
+     */
+    boolean isEnabled();
+
+    /**
+     * Starts or stops recording operations. Stopped, each operation costs one extra branch.
+     *
+     * @param enabled true to record operations.
+     */
+    void setEnabled(boolean enabled);
+
+    /**
+     * Returns the number of calls to each operation, by operation name.
+     *
+     * @return the number of calls to each operation.
+     */
+    Map<String, Long> getOperationCounts();
+
+    /**
+     * Returns the latency histogram of each operation, by operation name. Element i of a histogram counts the calls
+     * that took from 2<sup>i</sup> to 2<sup>i+1</sup> - 1 nanoseconds.
+     *
+     * @return the latency histogram of each operation.
+     */
+    Map<String, long[]> getLatencyHistograms();
+
+    /**
+     * Returns the number of priority comparisons made by the heap, if it reports them.
+     *
+     * @return the number of priority comparisons.
+     */
+    long getComparisons();
+
+    /**
+     * Returns the number of swaps or moves made by the heap to restore heap order, if it reports them.
+     *
+     * @return the number of swaps or moves.
+     */
+    long getMoves();
+
+    /**
+     * Returns the current number of items.
+     *
+     * @return the current number of items.
+     */
+    int getSize();
+
+    /**
+     * Returns the largest number of items seen while recording.
+     *
+     * @return the largest number of items.
+     */
+    int getMaxSize();
+
+    /**
+     * Clears all recorded statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,134 @@
+package minpq;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks the comparison and move counts {@link InstrumentedMinPQ} collects from each probed heap: exact counts on small
+ * heaps worked out by hand, an upper bound of 3 comparisons per level when sinking in {@link OptimizedHeapMinPQ}, and
+ * that nothing is counted while recording is switched off. Throws {@link AssertionError} on the first mismatch.
+ */
+public class InstrumentedMinPQTest {
+
+    public static void main(String[] args) {
+        optimizedHeap();
+        sinkBound(new Random(49), 1000);
+        pairingHeap();
+        minMaxHeap();
+        radixHeap();
+        List<Supplier<ExtrinsicMinPQ<Integer>>> heaps = List.of(OptimizedHeapMinPQ::new, DaryHeapMinPQ::new,
+                MinMaxHeapMinPQ::new, PairingHeapMinPQ::new, RadixHeapMinPQ::new);
+        for (Supplier<ExtrinsicMinPQ<Integer>> heap : heaps) {
+            disabled(heap.get());
+        }
+        System.out.println("InstrumentedMinPQTest passed");
+    }
+
+    /**
+     * Adding 1 to 7 in order compares each new item with its parent once and never swaps. Removing the minimum then
+     * sinks 7 from the root past 2 and 4: at each of two levels, both children are compared with it and with each
+     * other.
+     */
+    private static void optimizedHeap() {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(new OptimizedHeapMinPQ<>());
+        for (int i = 1; i <= 7; i += 1) {
+            pq.add(i, i);
+        }
+        counts(pq, 6, 0, "OptimizedHeapMinPQ add");
+        pq.reset();
+        check(pq.removeMin() == 1, "removeMin");
+        counts(pq, 6, 2, "OptimizedHeapMinPQ removeMin");
+    }
+
+    /**
+     * Drains a heap of random priorities and checks that no removal makes more than 3 comparisons per level.
+     */
+    private static void sinkBound(Random random, int size) {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(new OptimizedHeapMinPQ<>());
+        for (int i = 0; i < size; i += 1) {
+            pq.add(i, random.nextInt(size));
+        }
+        while (pq.size() > 1) {
+            int levels = 31 - Integer.numberOfLeadingZeros(pq.size() - 1);
+            pq.reset();
+            pq.removeMin();
+            check(pq.getComparisons() <= 3L * levels,
+                    pq.getComparisons() + " comparisons removing from " + (pq.size() + 1) + " items");
+        }
+    }
+
+    /**
+     * Each add links the new node with the root, and each link compares the two roots once.
+     */
+    private static void pairingHeap() {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(new PairingHeapMinPQ<>());
+        for (int i = 0; i < 4; i += 1) {
+            pq.add(i, 4 - i);
+        }
+        counts(pq, 3, 3, "PairingHeapMinPQ add");
+    }
+
+    /**
+     * Each of the root's children is compared with the root once when added.
+     */
+    private static void minMaxHeap() {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(new MinMaxHeapMinPQ<>());
+        for (int i = 1; i <= 3; i += 1) {
+            pq.add(i, i);
+        }
+        counts(pq, 2, 0, "MinMaxHeapMinPQ add");
+    }
+
+    /**
+     * The keys of 2 and 3 share their highest bit, so both start in the same bucket. The first removal scans and
+     * redistributes both, and the second scans and moves only 3.
+     */
+    private static void radixHeap() {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(new RadixHeapMinPQ<>());
+        pq.add(2, 2);
+        pq.add(3, 3);
+        counts(pq, 0, 0, "RadixHeapMinPQ add");
+        check(pq.removeMin() == 2, "removeMin");
+        counts(pq, 2, 2, "RadixHeapMinPQ first removeMin");
+        pq.reset();
+        check(pq.removeMin() == 3, "removeMin");
+        counts(pq, 1, 1, "RadixHeapMinPQ second removeMin");
+    }
+
+    /**
+     * Checks that the heap is counted while recording, not counted after switching recording off, and counted again
+     * after switching it back on.
+     */
+    private static void disabled(ExtrinsicMinPQ<Integer> heap) {
+        InstrumentedMinPQ<Integer> pq = new InstrumentedMinPQ<>(heap);
+        String name = heap.getClass().getSimpleName();
+        fill(pq, 0);
+        check(pq.getComparisons() > 0 && pq.getMoves() > 0, name + " counted nothing: " + pq);
+        pq.reset();
+        pq.setEnabled(false);
+        fill(pq, 100);
+        counts(pq, 0, 0, name + " while disabled");
+        pq.setEnabled(true);
+        fill(pq, 200);
+        check(pq.getComparisons() > 0 && pq.getMoves() > 0, name + " counted nothing after enabling: " + pq);
+    }
+
+    /**
+     * Adds 100 items with increasing priorities, which keeps the radix heap's priorities monotone, then removes half of
+     * them, which makes every heap reorder the rest.
+     */
+    private static void fill(ExtrinsicMinPQ<Integer> pq, int first) {
+        for (int i = first; i < first + 100; i += 1) {
+            pq.add(i, i);
+        }
+        pq.removeMin(50);
+    }
+
+    private static void counts(InstrumentedMinPQ<Integer> pq, long comparisons, long moves, String message) {
+        check(pq.getComparisons() == comparisons && pq.getMoves() == moves, message + ": " + pq.getComparisons()
+                + " comparisons and " + pq.getMoves() + " moves, expected " + comparisons + " and " + moves);
+    }
+}
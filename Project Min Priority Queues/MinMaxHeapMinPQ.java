@@ -0,0 +1,338 @@
+package minpq;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Min-max heap implementation of the {@link ExtrinsicMinPQ} interface that can also remove the item with the
+ * maximum priority. Levels of the binary heap alternate: an item on an even level (counting the root as level 0) is
+ * no larger than its descendants, and an item on an odd level is no smaller than its descendants. The minimum is at the
+ * root and the maximum is one of its children, so both ends are reachable in O(log n) time from a single array.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see BoundedMinPQ
+ */
+public class MinMaxHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * Items in min-max heap order; {@code items[0]} is the minimum.
+     */
+    private Object[] items;
+    /**
+     * Priority of the item at the same position in {@code items}.
+     */
+    private double[] priorities;
+    /**
+     * {@link Map} of each item to its associated index in the {@code items} heap.
+     */
+    private Map<T, Integer> itemToIndex;
+    private int size;
+    private HeapProbe probe = HeapProbe.NONE;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public MinMaxHeapMinPQ() {
+        items = new Object[16];
+        priorities = new double[16];
+        itemToIndex = new HashMap<>();
+        size = 0;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        if (size == items.length) {
+            items = Arrays.copyOf(items, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+        set(size, item, priority);
+        size += 1;
+        bubbleUp(size - 1);
+    }
+
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        for (T item : priorities.keySet()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Null item");
+            } else if (contains(item)) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+        }
+        if (priorities.size() < size) {
+            // Heapifying would touch every existing item; adding a small batch one at a time is cheaper.
+            ExtrinsicMinPQ.super.addAll(priorities);
+            return;
+        }
+        int total = size + priorities.size();
+        if (total > items.length) {
+            items = Arrays.copyOf(items, total);
+            this.priorities = Arrays.copyOf(this.priorities, total);
+        }
+        Map<T, Integer> presized = new HashMap<>((int) (total / 0.75f) + 1);
+        presized.putAll(itemToIndex);
+        itemToIndex = presized;
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            set(size, entry.getKey(), entry.getValue());
+            size += 1;
+        }
+        // Floyd's bottom-up heapify: trickle down every internal node, deepest first, in O(n) total.
+        for (int i = size / 2 - 1; i >= 0; i -= 1) {
+            trickleDown(i);
+        }
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return itemToIndex.containsKey(item);
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return itemAt(0);
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return removeAt(0);
+    }
+
+    /**
+     * Returns the item with the maximum priority value.
+     *
+     * @return the item with the maximum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public T peekMax() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return itemAt(maxIndex());
+    }
+
+    /**
+     * Returns the maximum priority value.
+     *
+     * @return the priority value of the item returned by {@link #peekMax}.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    double maxPriority() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return priorities[maxIndex()];
+    }
+
+    /**
+     * Returns and removes the item with the maximum priority value.
+     *
+     * @return the item with the maximum priority value.
+     * @throws NoSuchElementException if this priority queue is empty.
+     */
+    public T removeMax() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return removeAt(maxIndex());
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        Integer index = itemToIndex.get(item);
+        if (index == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        priorities[index] = priority;
+        restore(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Sets the probe to call for each comparison and move.
+     *
+     * @param probe the probe, or {@link HeapProbe#NONE}.
+     */
+    void setProbe(HeapProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Returns the index of the maximum, which is the root or one of its children.
+     */
+    private int maxIndex() {
+        if (size == 1) {
+            return 0;
+        } else if (size == 2) {
+            return 1;
+        }
+        probe.compared();
+        return priorities[1] >= priorities[2] ? 1 : 2;
+    }
+
+    /**
+     * Removes and returns the item at the given index, filling the hole with the last item.
+     */
+    private T removeAt(int index) {
+        T item = itemAt(index);
+        itemToIndex.remove(item);
+        size -= 1;
+        if (index < size) {
+            set(index, itemAt(size), priorities[size]);
+            items[size] = null;
+            restore(index);
+        } else {
+            items[size] = null;
+        }
+        return item;
+    }
+
+    /**
+     * Restores the heap order after the priority at the given index changed: first down within its subtree, then up
+     * along its ancestors from wherever it ended.
+     */
+    private void restore(int index) {
+        T item = itemAt(index);
+        trickleDown(index);
+        bubbleUp(itemToIndex.get(item));
+    }
+
+    private void bubbleUp(int index) {
+        if (index == 0) {
+            return;
+        }
+        int parent = (index - 1) / 2;
+        probe.compared();
+        if (isMinLevel(index)) {
+            if (priorities[index] > priorities[parent]) {
+                swap(index, parent);
+                bubbleUpMax(parent);
+            } else {
+                bubbleUpMin(index);
+            }
+        } else {
+            if (priorities[index] < priorities[parent]) {
+                swap(index, parent);
+                bubbleUpMin(parent);
+            } else {
+                bubbleUpMax(index);
+            }
+        }
+    }
+
+    /**
+     * Moves the item at the given index on a min level up through its min-level ancestors.
+     */
+    private void bubbleUpMin(int index) {
+        while (index > 2) {
+            int grandparent = ((index - 1) / 2 - 1) / 2;
+            probe.compared();
+            if (priorities[index] >= priorities[grandparent]) {
+                break;
+            }
+            swap(index, grandparent);
+            index = grandparent;
+        }
+    }
+
+    /**
+     * Moves the item at the given index on a max level up through its max-level ancestors.
+     */
+    private void bubbleUpMax(int index) {
+        while (index > 2) {
+            int grandparent = ((index - 1) / 2 - 1) / 2;
+            probe.compared();
+            if (priorities[index] <= priorities[grandparent]) {
+                break;
+            }
+            swap(index, grandparent);
+            index = grandparent;
+        }
+    }
+
+    private void trickleDown(int index) {
+        if (isMinLevel(index)) {
+            trickleDown(index, 1);
+        } else {
+            trickleDown(index, -1);
+        }
+    }
+
+    /**
+     * Moves the item at the given index down. With sign 1 the index is on a min level and the item moves towards the
+     * smallest descendant; with sign -1 it is on a max level and the item moves towards the largest. Multiplying
+     * priorities by the sign lets one loop handle both.
+     */
+    private void trickleDown(int index, int sign) {
+        while (2 * index + 1 < size) {
+            // Find the best of the children and grandchildren.
+            int best = 2 * index + 1;
+            if (best + 1 < size) {
+                probe.compared();
+                if (sign * priorities[best + 1] < sign * priorities[best]) {
+                    best += 1;
+                }
+            }
+            for (int i = 4 * index + 3; i < Math.min(4 * index + 7, size); i += 1) {
+                probe.compared();
+                if (sign * priorities[i] < sign * priorities[best]) {
+                    best = i;
+                }
+            }
+            probe.compared();
+            if (sign * priorities[best] >= sign * priorities[index]) {
+                return;
+            }
+            swap(best, index);
+            if (best <= 2 * index + 2) {
+                // A child is on the opposite kind of level and has no grandchildren to compare against.
+                return;
+            }
+            int parent = (best - 1) / 2;
+            probe.compared();
+            if (sign * priorities[best] > sign * priorities[parent]) {
+                swap(best, parent);
+            }
+            index = best;
+        }
+    }
+
+    private static boolean isMinLevel(int index) {
+        return (31 - Integer.numberOfLeadingZeros(index + 1)) % 2 == 0;
+    }
+
+    private void swap(int i, int j) {
+        probe.moved();
+        T item = itemAt(i);
+        double priority = priorities[i];
+        set(i, itemAt(j), priorities[j]);
+        set(j, item, priority);
+    }
+
+    private void set(int index, T item, double priority) {
+        items[index] = item;
+        priorities[index] = priority;
+        itemToIndex.put(item, index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T itemAt(int index) {
+        return (T) items[index];
+    }
+}
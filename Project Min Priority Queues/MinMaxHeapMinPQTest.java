@@ -0,0 +1,112 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks {@link MinMaxHeapMinPQ} against the reference model with priorities drawn from a small range, so that ties are
+ * common, then checks the max side: {@link MinMaxHeapMinPQ#removeMax} on every arrangement of up to 5 items, which
+ * covers the sizes 1, 2 and 3 where the maximum is the root or one of its children, and draining larger heaps from
+ * both ends after random priority changes. Throws {@link AssertionError} on the first mismatch.
+ */
+public class MinMaxHeapMinPQTest {
+
+    public static void main(String[] args) {
+        MinPQModelChecker.run(MinMaxHeapMinPQ::new, new MinPQModelChecker.Priorities() {
+            @Override
+            public double added(Random random, double floor) {
+                return random.nextInt(50);
+            }
+
+            @Override
+            public double changed(Random random, double old, double floor) {
+                return random.nextInt(50);
+            }
+        }, 47);
+        for (int size = 1; size <= 5; size += 1) {
+            removeMaxAll(size);
+        }
+        Random random = new Random(47);
+        for (int trial = 0; trial < 200; trial += 1) {
+            drainBothEnds(random, 1 + random.nextInt(300));
+        }
+        System.out.println("MinMaxHeapMinPQTest passed");
+    }
+
+    /**
+     * For every assignment of priorities in [0, size) to the given number of items, added one at a time and in one
+     * batch, checks that repeated removeMax returns items in non-increasing priority order.
+     */
+    private static void removeMaxAll(int size) {
+        int[] priorities = new int[size];
+        int arrangements = (int) Math.pow(size, size);
+        for (int a = 0; a < arrangements; a += 1) {
+            Map<Integer, Double> expected = new HashMap<>();
+            for (int i = 0, rest = a; i < size; i += 1, rest /= size) {
+                priorities[i] = rest % size;
+                expected.put(i, (double) priorities[i]);
+            }
+            MinMaxHeapMinPQ<Integer> one = new MinMaxHeapMinPQ<>();
+            for (int i = 0; i < size; i += 1) {
+                one.add(i, priorities[i]);
+            }
+            MinMaxHeapMinPQ<Integer> batch = new MinMaxHeapMinPQ<>();
+            batch.addAll(expected);
+            drainMax(one, new HashMap<>(expected));
+            drainMax(batch, new HashMap<>(expected));
+        }
+    }
+
+    private static void drainMax(MinMaxHeapMinPQ<Integer> pq, Map<Integer, Double> expected) {
+        while (!expected.isEmpty()) {
+            double max = max(expected);
+            check(expected.get(pq.peekMax()) == max, "peekMax of " + expected);
+            check(expected.remove(pq.removeMax()) == max, "removeMax of " + expected);
+            check(pq.size() == expected.size(), "size after removeMax");
+        }
+        check(pq.isEmpty(), "not empty after drain");
+    }
+
+    /**
+     * Builds a heap, changes random priorities up and down, then drains it by removing from a random end each time.
+     */
+    private static void drainBothEnds(Random random, int size) {
+        MinMaxHeapMinPQ<Integer> pq = new MinMaxHeapMinPQ<>();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < size; i += 1) {
+            double priority = random.nextInt(50);
+            pq.add(i, priority);
+            expected.put(i, priority);
+        }
+        for (int i = 0; i < size; i += 1) {
+            int item = random.nextInt(size);
+            double priority = random.nextInt(50);
+            pq.changePriority(item, priority);
+            expected.put(item, priority);
+        }
+        while (!expected.isEmpty()) {
+            if (random.nextBoolean()) {
+                double max = max(expected);
+                check(expected.remove(pq.removeMax()) == max, "removeMax");
+            } else {
+                double min = Double.POSITIVE_INFINITY;
+                for (double priority : expected.values()) {
+                    min = Math.min(min, priority);
+                }
+                check(expected.remove(pq.removeMin()) == min, "removeMin");
+            }
+            check(pq.size() == expected.size(), "size");
+        }
+    }
+
+    private static double max(Map<Integer, Double> priorities) {
+        double max = Double.NEGATIVE_INFINITY;
+        for (double priority : priorities.values()) {
+            max = Math.max(max, priority);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,63 @@
+package minpq;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link ExtrinsicMinPQ} implementations on a Dijkstra-like workload: add <i>n</i> items, decrease the
+ * priority of <i>n</i> random items, then remove every item. Sizes grow by factors of 10 up to the first argument
+ * (default 10,000,000).
+ */
+public class MinPQBenchmark {
+    /**
+     * Number of untimed runs per size before measuring.
+     */
+    private static final int WARMUP = 2;
+
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        List<Supplier<ExtrinsicMinPQ<Integer>>> implementations = List.of(
+                OptimizedHeapMinPQ::new,
+                () -> new DaryHeapMinPQ<>(2),
+                () -> new DaryHeapMinPQ<>(4),
+                () -> new DaryHeapMinPQ<>(8)
+        );
+        List<String> names = List.of("OptimizedHeapMinPQ", "DaryHeapMinPQ(2)", "DaryHeapMinPQ(4)", "DaryHeapMinPQ(8)");
+        for (int n = 1000; n <= maxSize; n *= 10) {
+            for (int i = 0; i < implementations.size(); i += 1) {
+                for (int w = 0; w < WARMUP; w += 1) {
+                    run(implementations.get(i).get(), n);
+                }
+                long elapsed = run(implementations.get(i).get(), n);
+                System.out.printf("%-20s n=%-10d %8.1f ms%n", names.get(i), n, elapsed / 1e6);
+            }
+        }
+    }
+
+    /**
+     * Runs the workload once and returns the elapsed time in nanoseconds.
+     *
+     * @param pq the empty priority queue to exercise.
+     * @param n  the number of items.
+     * @return the elapsed time in nanoseconds.
+     */
+    private static long run(ExtrinsicMinPQ<Integer> pq, int n) {
+        Random random = new Random(n);
+        double[] priorities = new double[n];
+        long start = System.nanoTime();
+        for (int i = 0; i < n; i += 1) {
+            priorities[i] = random.nextDouble();
+            pq.add(i, priorities[i]);
+        }
+        for (int i = 0; i < n; i += 1) {
+            int item = random.nextInt(n);
+            priorities[item] *= random.nextDouble();
+            pq.changePriority(item, priorities[item]);
+        }
+        while (!pq.isEmpty()) {
+            pq.removeMin();
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,226 @@
+package minpq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Checks an {@link ExtrinsicMinPQ} implementation against a {@link HashMap} reference model. Each trial applies random
+ * adds, batch adds, priority changes, containment checks, single and batch removals, and rejected calls to a fresh
+ * priority queue and to the model, then drains both. Removals may return any item whose priority ties the model's
+ * minimum. Throws {@link AssertionError} on the first mismatch.
+ * <p>
+ * New and changed priorities come from a {@link Priorities} strategy, so that each implementation can be checked
+ * under the workload it is built for. Implementation-specific cases belong in that implementation's own test.
+ */
+final class MinPQModelChecker {
+    private static final int TRIALS = 200;
+    private static final int MAX_ITEMS = 300;
+
+    private MinPQModelChecker() {
+    }
+
+    /**
+     * Chooses the priorities of added and changed items.
+     */
+    interface Priorities {
+        /**
+         * Returns the priority of a new item.
+         *
+         * @param random the source of randomness.
+         * @param floor  the last removed minimum priority, or 0 if nothing has been removed.
+         * @return the priority of the new item.
+         */
+        double added(Random random, double floor);
+
+        /**
+         * Returns the new priority of an item being changed.
+         *
+         * @param random the source of randomness.
+         * @param old    the item's current priority.
+         * @param floor  the last removed minimum priority, or 0 if nothing has been removed.
+         * @return the new priority of the item.
+         */
+        double changed(Random random, double old, double floor);
+    }
+
+    /**
+     * Checks fresh priority queues from the supplier against the reference model.
+     *
+     * @param pqs        supplies empty priority queues.
+     * @param priorities chooses the priorities of added and changed items.
+     * @param seed       seed for the random operations.
+     */
+    static void run(Supplier<? extends ExtrinsicMinPQ<Integer>> pqs, Priorities priorities, long seed) {
+        Random random = new Random(seed);
+        for (int t = 0; t < TRIALS; t += 1) {
+            trial(pqs.get(), priorities, random, 1 + random.nextInt(MAX_ITEMS));
+        }
+    }
+
+    /**
+     * Runs random operations on the priority queue while it holds up to about the given number of items.
+     */
+    private static void trial(ExtrinsicMinPQ<Integer> pq, Priorities priorities, Random random, int items) {
+        Map<Integer, Double> expected = new HashMap<>();
+        double floor = 0;
+        int next = 0;
+        check(pq.isEmpty(), "new priority queue is not empty");
+        throwsOnEmpty(pq);
+        pq.addAll(new HashMap<>());
+        check(pq.isEmpty(), "adding an empty batch changed the size");
+        for (int step = 0; step < 20 * items; step += 1) {
+            int op = random.nextInt(20);
+            if (op < 6 && expected.size() < items || expected.isEmpty()) {
+                double priority = priorities.added(random, floor);
+                pq.add(next, priority);
+                expected.put(next, priority);
+                next += 1;
+            } else if (op == 6) {
+                Map<Integer, Double> batch = new LinkedHashMap<>();
+                for (int i = random.nextInt(items - Math.min(items, expected.size()) + 1); i > 0; i -= 1) {
+                    batch.put(next, priorities.added(random, floor));
+                    next += 1;
+                }
+                pq.addAll(batch);
+                expected.putAll(batch);
+            } else if (op < 13) {
+                int item = random.nextInt(next);
+                if (expected.containsKey(item)) {
+                    double priority = priorities.changed(random, expected.get(item), floor);
+                    pq.changePriority(item, priority);
+                    expected.put(item, priority);
+                } else {
+                    rejectsMissing(pq, item, priorities.added(random, floor));
+                }
+            } else if (op == 13) {
+                int item = random.nextInt(next);
+                check(pq.contains(item) == expected.containsKey(item), "contains " + item);
+                if (expected.containsKey(item)) {
+                    rejectsDuplicate(pq, item, expected.get(item));
+                }
+            } else if (op < 19) {
+                double min = min(expected);
+                check(expected.get(pq.peekMin()) == min, "peekMin");
+                check(expected.remove(pq.removeMin()) == min, "removeMin");
+                floor = min;
+            } else if (random.nextInt(4) == 0) {
+                rejectsBatch(pq, expected.size() + 1);
+            } else {
+                int k = random.nextInt(Math.min(expected.size(), 8) + 1);
+                List<Integer> removed = pq.removeMin(k);
+                check(removed.size() == k, "removeMin(" + k + ") returned " + removed.size() + " items");
+                for (int item : removed) {
+                    double min = min(expected);
+                    check(expected.get(item) != null && expected.get(item) == min, "removeMin(" + k + ") order");
+                    expected.remove(item);
+                    floor = min;
+                }
+            }
+            check(pq.size() == expected.size(), "size " + pq.size() + ", expected " + expected.size());
+        }
+        List<Integer> drained = new ArrayList<>();
+        while (!expected.isEmpty()) {
+            double min = min(expected);
+            int item = pq.removeMin();
+            check(expected.get(item) != null && expected.remove(item) == min, "drain");
+            drained.add(item);
+        }
+        check(pq.isEmpty(), "not empty after drain");
+        throwsOnEmpty(pq);
+        check(pq.removeMin(0).isEmpty(), "removeMin(0) on an empty priority queue");
+        rejectsBatch(pq, 1);
+        for (int item : drained) {
+            check(!pq.contains(item), "contains " + item + " after drain");
+        }
+    }
+
+    /**
+     * Checks that peeking at or removing from the empty priority queue throws {@link NoSuchElementException}.
+     */
+    private static void throwsOnEmpty(ExtrinsicMinPQ<Integer> pq) {
+        try {
+            pq.peekMin();
+            throw new AssertionError("peekMin on an empty priority queue");
+        } catch (NoSuchElementException expected) {
+            // Expected
+        }
+        try {
+            pq.removeMin();
+            throw new AssertionError("removeMin on an empty priority queue");
+        } catch (NoSuchElementException expected) {
+            // Expected
+        }
+    }
+
+    /**
+     * Checks that changing the priority of an item that is not present throws {@link NoSuchElementException}.
+     */
+    private static void rejectsMissing(ExtrinsicMinPQ<Integer> pq, int item, double priority) {
+        int size = pq.size();
+        try {
+            pq.changePriority(item, priority);
+            throw new AssertionError("changed the priority of missing item " + item);
+        } catch (NoSuchElementException expected) {
+            check(pq.size() == size, "rejected change altered the size");
+        }
+    }
+
+    /**
+     * Checks that removing more items than are present, or a negative number of items, is rejected without removing
+     * anything.
+     */
+    private static void rejectsBatch(ExtrinsicMinPQ<Integer> pq, int k) {
+        int size = pq.size();
+        try {
+            pq.removeMin(k);
+            throw new AssertionError("removed " + k + " items from " + size);
+        } catch (NoSuchElementException expected) {
+            check(pq.size() == size, "rejected batch removal altered the size");
+        }
+        try {
+            pq.removeMin(-1);
+            throw new AssertionError("removed -1 items");
+        } catch (IllegalArgumentException expected) {
+            check(pq.size() == size, "rejected batch removal altered the size");
+        }
+    }
+
+    /**
+     * Checks that adding an item that is already present throws {@link IllegalArgumentException}.
+     */
+    private static void rejectsDuplicate(ExtrinsicMinPQ<Integer> pq, int item, double priority) {
+        int size = pq.size();
+        try {
+            pq.add(item, priority);
+            throw new AssertionError("added duplicate item " + item);
+        } catch (IllegalArgumentException expected) {
+            check(pq.size() == size, "rejected add altered the size");
+        }
+    }
+
+    private static double min(Map<Integer, Double> priorities) {
+        double min = Double.POSITIVE_INFINITY;
+        for (double priority : priorities.values()) {
+            min = Math.min(min, priority);
+        }
+        return min;
+    }
+
+    /**
+     * Throws {@link AssertionError} with the message if the condition does not hold.
+     *
+     * @param condition the condition to check.
+     * @param message   the message describing a failure.
+     */
+    static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package minpq;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares {@link MultiQueueMinPQ} with a {@link DaryHeapMinPQ} behind a single lock. Each thread alternates adding
+ * and removing items on a queue prefilled with <i>n</i> items (default 1,000,000, or the first argument) for a fixed
+ * time, for thread counts doubling up to twice the number of processors. Also reports the mean rank error of
+ * {@link MultiQueueMinPQ#removeMin}: how many items with a smaller priority were still in the queue.
+ */
+public class MultiQueueBenchmark {
+    /**
+     * Measured time per run in milliseconds.
+     */
+    private static final int DURATION = 1000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int maxThreads = 2 * Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ExtrinsicMinPQ<Integer> locked = new DaryHeapMinPQ<>();
+            double lockedRate = run(locked, locked, n, threads);
+            double multiRate = run(new MultiQueueMinPQ<>(threads), null, n, threads);
+            System.out.printf("threads=%-3d locked %10.0f ops/s   multiqueue %10.0f ops/s%n",
+                    threads, lockedRate, multiRate);
+        }
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            System.out.printf("threads=%-3d mean rank error %.1f%n", threads, rankError(threads, 100_000));
+        }
+    }
+
+    /**
+     * Runs the workload and returns the number of operations per second.
+     *
+     * @param pq      the empty priority queue to exercise.
+     * @param lock    the object to synchronize every operation on, or null to call the priority queue directly.
+     * @param n       the number of items to prefill.
+     * @param threads the number of threads.
+     * @return the number of add and removeMin operations per second.
+     */
+    private static double run(ExtrinsicMinPQ<Integer> pq, Object lock, int n, int threads)
+            throws InterruptedException {
+        Random random = new Random(n);
+        for (int i = 0; i < n; i += 1) {
+            pq.add(i, random.nextDouble());
+        }
+        AtomicInteger next = new AtomicInteger(n);
+        long[] counts = new long[threads];
+        long deadline = System.nanoTime() + DURATION * 1_000_000L;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t += 1) {
+            int id = t;
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom local = ThreadLocalRandom.current();
+                long ops = 0;
+                while (System.nanoTime() < deadline) {
+                    int item = next.getAndIncrement();
+                    double priority = local.nextDouble();
+                    if (lock == null) {
+                        pq.add(item, priority);
+                        pq.removeMin();
+                    } else {
+                        synchronized (lock) {
+                            pq.add(item, priority);
+                        }
+                        synchronized (lock) {
+                            pq.removeMin();
+                        }
+                    }
+                    ops += 2;
+                }
+                counts[id] = ops;
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        long total = 0;
+        for (int t = 0; t < threads; t += 1) {
+            workers.get(t).join();
+            total += counts[t];
+        }
+        return total * 1000.0 / DURATION;
+    }
+
+    /**
+     * Fills a queue sized for the given number of threads with n items, then removes them all from one thread and
+     * returns the mean number of smaller priorities remaining at each removal.
+     */
+    private static double rankError(int threads, int n) {
+        MultiQueueMinPQ<Integer> pq = new MultiQueueMinPQ<>(threads);
+        TreeMap<Double, Integer> remaining = new TreeMap<>();
+        double[] priorities = new double[n];
+        Random random = new Random(threads);
+        for (int i = 0; i < n; i += 1) {
+            priorities[i] = random.nextDouble();
+            pq.add(i, priorities[i]);
+            remaining.put(priorities[i], i);
+        }
+        long ranks = 0;
+        while (!pq.isEmpty()) {
+            double priority = priorities[pq.removeMin()];
+            ranks += remaining.headMap(priority).size();
+            remaining.remove(priority);
+        }
+        return (double) ranks / n;
+    }
+}
@@ -0,0 +1,220 @@
+package minpq;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe MultiQueue implementation of the {@link ExtrinsicMinPQ} interface. Items are spread over several
+ * sequential {@link DaryHeapMinPQ} heaps, each guarded by its own lock. {@link #add} puts an item into a random heap
+ * whose lock is free, and {@link #removeMin} compares the cached minimums of two random heaps and removes from the
+ * better one, so threads rarely wait on each other and throughput scales with the number of cores.
+ * <p>
+ * The priority queue is <b>relaxed</b>: {@link #removeMin} and {@link #peekMin} return an item whose priority is close
+ * to, but not always, the minimum. With <i>c</i> heaps per thread the expected rank of the removed item is O(<i>c</i>
+ * &middot; threads). Sequences of calls such as {@code peekMin} then {@code removeMin} are not atomic.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see DaryHeapMinPQ
+ */
+public class MultiQueueMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * Default number of heaps per thread.
+     */
+    private static final int HEAPS_PER_THREAD = 2;
+    private final Shard<T>[] shards;
+    /**
+     * {@link Map} of each item to the index of the shard that holds it. Only changed while holding that shard's lock.
+     */
+    private final Map<T, Integer> owners;
+    private final AtomicInteger size;
+
+    /**
+     * Constructs an empty instance sized for the number of available processors.
+     */
+    public MultiQueueMinPQ() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs an empty instance sized for the given number of concurrent threads.
+     *
+     * @param threads the expected number of threads using this priority queue.
+     * @throws IllegalArgumentException if threads is not positive.
+     */
+    @SuppressWarnings("unchecked")
+    public MultiQueueMinPQ(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        shards = (Shard<T>[]) new Shard<?>[HEAPS_PER_THREAD * threads];
+        for (int i = 0; i < shards.length; i += 1) {
+            shards[i] = new Shard<>();
+        }
+        owners = new ConcurrentHashMap<>();
+        size = new AtomicInteger();
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        }
+        int i = lockRandom();
+        Shard<T> shard = shards[i];
+        try {
+            if (owners.putIfAbsent(item, i) != null) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+            shard.heap.add(item, priority);
+            shard.update();
+            size.incrementAndGet();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return owners.containsKey(item);
+    }
+
+    @Override
+    public T peekMin() {
+        while (true) {
+            if (isEmpty()) {
+                throw new NoSuchElementException("PQ is empty");
+            }
+            Shard<T> shard = shards[smallest()];
+            shard.lock.lock();
+            try {
+                if (!shard.heap.isEmpty()) {
+                    return shard.heap.peekMin();
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public T removeMin() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            if (isEmpty()) {
+                throw new NoSuchElementException("PQ is empty");
+            }
+            int a = random.nextInt(shards.length);
+            int b = random.nextInt(shards.length);
+            int i = better(a, b);
+            if (shards[i].count == 0) {
+                // Both picks looked empty, which is likely when few items remain, so scan every heap instead.
+                i = smallest();
+            }
+            Shard<T> shard = shards[i];
+            if (!shard.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (!shard.heap.isEmpty()) {
+                    T min = shard.heap.removeMin();
+                    owners.remove(min);
+                    shard.update();
+                    size.decrementAndGet();
+                    return min;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        while (true) {
+            Integer i = owners.get(item);
+            if (i == null) {
+                throw new NoSuchElementException("PQ does not contain " + item);
+            }
+            Shard<T> shard = shards[i];
+            shard.lock.lock();
+            try {
+                // The item may have been removed, and possibly re-added elsewhere, before the lock was acquired.
+                if (i.equals(owners.get(item))) {
+                    shard.heap.changePriority(item, priority);
+                    shard.update();
+                    return;
+                }
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Locks a random shard whose lock is free and returns its index.
+     */
+    private int lockRandom() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            int i = random.nextInt(shards.length);
+            if (shards[i].lock.tryLock()) {
+                return i;
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the non-empty shard with the smaller cached minimum priority, without locking.
+     */
+    private int better(int a, int b) {
+        if (shards[a].count == 0) {
+            return b;
+        } else if (shards[b].count == 0) {
+            return a;
+        }
+        return shards[b].min < shards[a].min ? b : a;
+    }
+
+    /**
+     * Returns the index of the non-empty shard with the smallest cached minimum priority, without locking.
+     */
+    private int smallest() {
+        int best = 0;
+        for (int i = 1; i < shards.length; i += 1) {
+            best = better(best, i);
+        }
+        return best;
+    }
+
+    /**
+     * A sequential heap with its lock and a cached size and minimum priority that other threads can read without
+     * locking.
+     */
+    private static class Shard<T> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final DaryHeapMinPQ<T> heap = new DaryHeapMinPQ<>();
+        /**
+         * Minimum priority in the heap, or positive infinity if the heap is empty.
+         */
+        private volatile double min = Double.POSITIVE_INFINITY;
+        private volatile int count = 0;
+
+        /**
+         * Refreshes the cached size and minimum. Must be called while holding the lock after changing the heap.
+         */
+        void update() {
+            min = heap.isEmpty() ? Double.POSITIVE_INFINITY : heap.minPriority();
+            count = heap.size();
+        }
+    }
+}
@@ -12,13 +12,18 @@ import java.util.*;
  */
 public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
     /**
-     * {@link List} of {@link PriorityNode} objects representing the heap of item-priority pairs.
+     * {@link ArrayList} of {@link PriorityNode} objects representing the heap of item-priority pairs.
      */
-    private final List<PriorityNode<T>> items;
+    private final ArrayList<PriorityNode<T>> items;
     /**
-     * {@link Map} of each item to its associated index in the {@code items} heap.
+     * {@link Map} of each item to its associated index in the {@code items} heap. Replaced by a larger map before a
+     * bulk load so that it never rehashes during the load.
      */
-    private final Map<T, Integer> itemToIndex;
+    private Map<T, Integer> itemToIndex;
+    /**
+     * Receives a callback for each comparison and swap.
+     */
+    private HeapProbe probe = HeapProbe.NONE;
 
     /**
      * Constructs an empty instance.
@@ -38,9 +43,7 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
             PriorityNode<T> newItem = new PriorityNode<T>(item, priority);
             items.add(newItem);  //Adds new item into the end of our array list
             itemToIndex.put(item, size());  //Add new item into Hash Map with the index of end of array list.
-            if (checkSwim(size())) {  //Checks if we need to swim the new item in its position
-                swim(size());
-            }
+            swim(size());  //Swims the new item only if needed; swim checks first, so the comparison is counted once
         }
     }
 
@@ -49,6 +52,35 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         return itemToIndex.containsKey(item);
     }
 
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        for (T item : priorities.keySet()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Null item");
+            } else if (contains(item)) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+        }
+        if (priorities.size() < size()) {
+            // Heapifying would touch every existing item; adding a small batch one at a time is cheaper.
+            ExtrinsicMinPQ.super.addAll(priorities);
+            return;
+        }
+        int total = size() + priorities.size();
+        items.ensureCapacity(total + 1);
+        Map<T, Integer> presized = new HashMap<>((int) (total / 0.75f) + 1);
+        presized.putAll(itemToIndex);
+        itemToIndex = presized;
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            items.add(new PriorityNode<>(entry.getKey(), entry.getValue()));
+            itemToIndex.put(entry.getKey(), size());
+        }
+        // Floyd's bottom-up heapify: sink every internal node, deepest first, in O(n) total.
+        for (int i = size() / 2; i >= 1; i--) {
+            sink(i);
+        }
+    }
+
     @Override
     public T peekMin() {
         if (isEmpty()) {
@@ -98,39 +130,56 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         return items.size() - 1;
     }
 
+    /**
+     * Sets the probe to call for each comparison and swap.
+     *
+     * @param probe the probe, or {@link HeapProbe#NONE}.
+     */
+    void setProbe(HeapProbe probe) {
+        this.probe = probe;
+    }
+
     private void sink(int index) {
         PriorityNode<T> store = items.get(index); //STORE OUR PARENT NODE TO SWAP
-        if (!(checkSinkLeft(index)) & !(checkSinkRight(index))) {  //BASE CASE OF CORRECT POSITION
+        // Compare each child once per level, so that the probe counts every comparison exactly once.
+        boolean sinkLeft = checkSinkLeft(index);
+        boolean sinkRight = checkSinkRight(index);
+        if (!sinkLeft & !sinkRight) {  //BASE CASE OF CORRECT POSITION
             itemToIndex.replace(store.item(), index);
         } else {
             int lcPosition = 2 * index;
             int rcPosition = 2 * index + 1;
-            if(checkSinkLeft(index) & checkSinkRight(index)) {  //IF BOTH CHILD NODES NEED A SWAP
+            if(sinkLeft & sinkRight) {  //IF BOTH CHILD NODES NEED A SWAP
                 double rightPriority = items.get(rcPosition).priority();
                 double leftPriority = items.get(lcPosition).priority();
+                probe.compared();
                 if( leftPriority < rightPriority) {   //LEFT CHILD IS SMALLER
                     itemToIndex.replace(store.item(), lcPosition ); //UPDATE PARENT NODE HASH MAP TO NEW INDEX
                     itemToIndex.replace(items.get(lcPosition).item(), index); //UPDATE THE LEFT CHILD NODE HASH MAP TO NEW INDEX
                     items.set(index, items.get(lcPosition)); //SETS THE PARENT NODE TO THE LEFT CHILD NODE
+                    probe.moved();
                     items.set(lcPosition, store);            //SETS THE LEFT CHILD NODE TO THE PARENT NODE
                     sink( lcPosition);
                 } else {                              //RIGHT CHILD IS SMALLER
                     itemToIndex.replace(store.item(), rcPosition); //UPDATE PARENT NODE HASH MAP TO NEW INDEX
                     itemToIndex.replace(items.get(rcPosition).item(), index); //UPDATE THE RIGHT CHILD NODE HASH MAP TO NEW INDEX
                     items.set(index, items.get(rcPosition)); //SETS THE PARENT NODE TO THE RIGHT CHILD NODE
+                    probe.moved();
                     items.set(rcPosition, store);            //SETS THE RIGHT CHILD NODE TO THE PARENT NODE
                     sink(rcPosition);
                 }
-            } else if (checkSinkLeft(index)) {
+            } else if (sinkLeft) {
                 itemToIndex.replace(store.item(), lcPosition ); //UPDATE PARENT NODE HASH MAP TO NEW INDEX
                 itemToIndex.replace(items.get(lcPosition).item(), index); //UPDATE THE LEFT CHILD NODE HASH MAP TO NEW INDEX
                 items.set(index, items.get(lcPosition)); //SETS THE PARENT NODE TO THE LEFT CHILD NODE
+                probe.moved();
                 items.set(lcPosition, store);            //SETS THE LEFT CHILD NODE TO THE PARENT NODE
                 sink( lcPosition);
-            } else if (checkSinkRight(index)) {
+            } else if (sinkRight) {
                 itemToIndex.replace(store.item(), rcPosition); //UPDATE PARENT NODE HASH MAP TO NEW INDEX
                 itemToIndex.replace(items.get(rcPosition).item(), index); //UPDATE THE RIGHT CHILD NODE HASH MAP TO NEW INDEX
                 items.set(index, items.get(rcPosition)); //SETS THE PARENT NODE TO THE RIGHT CHILD NODE
+                probe.moved();
                 items.set(rcPosition, store);            //SETS THE RIGHT CHILD NODE TO THE PARENT NODE
                 sink(rcPosition);
             }
@@ -149,6 +198,7 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
             itemToIndex.replace(items.get(parentPosition).item(), index); //UPDATE THE HASH MAP AND SWAP PARENT POSITION WITH CHILD POSITION (PARENT SWAP)
             items.set(index, items.get(parentPosition)); //SET OUR CURRENT CHILD NODE IN ARRAYLIST TO THE PARENT NODE (1).
             items.set( parentPosition, store ); //SET THE PARENT NODE IN THE ARRAYLIST TO OUR CURRENT CHILD NODE (2)   SWAP IS NOW DONE.
+            probe.moved();
             swim(parentPosition); //NOW RECURSION SWIM THE CHILD NODE TO KEEP MOVING IT UP.
         }
     }
@@ -158,7 +208,9 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         int lcPosition = 2 * index;
         if (lcPosition > size()) {
             return false;
-        } else if (items.get(lcPosition).priority() < currPriority) {
+        }
+        probe.compared();
+        if (items.get(lcPosition).priority() < currPriority) {
             return true;
         } else {
             return false;
@@ -170,7 +222,9 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         int rcPosition = 2 * index + 1;
         if (rcPosition > size()) {
             return false;
-        } else if (items.get(rcPosition).priority() < currPriority) {
+        }
+        probe.compared();
+        if (items.get(rcPosition).priority() < currPriority) {
             return true;
         } else {
             return false;
@@ -184,6 +238,7 @@ public class OptimizedHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         int parentPosition = index / 2;
         double currPriority = items.get(index).priority();
         double parentPriority = items.get(parentPosition).priority();
+        probe.compared();
         if (currPriority < parentPriority) {
             return true;
         } else {
@@ -0,0 +1,216 @@
+package minpq;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing heap implementation of the {@link ExtrinsicMinPQ} interface. Each item has a node handle, so decreasing a
+ * priority only cuts the node's subtree and links it with the root in O(1) amortized time, which suits searches that
+ * call {@link #changePriority} far more often than {@link #removeMin}. Removed nodes are recycled through a free list,
+ * so steady-state runs only allocate inside the handle map.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class PairingHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * {@link Map} of each item to its node in the heap.
+     */
+    private final Map<T, Node<T>> handles;
+    /**
+     * The root of the heap, holding the minimum priority.
+     */
+    private Node<T> root;
+    /**
+     * Recycled nodes, linked through {@code next}.
+     */
+    private Node<T> free;
+    private HeapProbe probe = HeapProbe.NONE;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public PairingHeapMinPQ() {
+        handles = new HashMap<>();
+        root = null;
+        free = null;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        Node<T> node = free;
+        if (node == null) {
+            node = new Node<>();
+        } else {
+            free = node.next;
+            node.next = null;
+        }
+        node.item = item;
+        node.priority = priority;
+        handles.put(item, node);
+        root = link(root, node);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return handles.containsKey(item);
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        return root.item;
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        Node<T> min = root;
+        T item = min.item;
+        root = mergePairs(min.child);
+        handles.remove(item);
+        min.item = null;
+        min.child = null;
+        min.next = free;
+        free = min;
+        return item;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        Node<T> node = handles.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        if (priority < node.priority) {
+            // Decrease: the subtree stays heap-ordered, so cut it and link it with the root.
+            node.priority = priority;
+            if (node != root) {
+                cut(node);
+                root = link(root, node);
+            }
+        } else if (priority > node.priority) {
+            // Increase: the children may now be smaller, so detach them and reinsert the node on its own.
+            if (node == root) {
+                root = mergePairs(node.child);
+            } else {
+                cut(node);
+                root = link(root, mergePairs(node.child));
+            }
+            node.child = null;
+            node.priority = priority;
+            root = link(root, node);
+        }
+    }
+
+    @Override
+    public int size() {
+        return handles.size();
+    }
+
+    /**
+     * Sets the probe to call for each comparison and each link of one tree under another.
+     *
+     * @param probe the probe, or {@link HeapProbe#NONE}.
+     */
+    void setProbe(HeapProbe probe) {
+        this.probe = probe;
+    }
+
+    /**
+     * Links two detached trees, making the root with the larger priority the first child of the other.
+     *
+     * @return the root of the linked tree.
+     */
+    private Node<T> link(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        probe.compared();
+        probe.moved();
+        if (b.priority < a.priority) {
+            Node<T> temp = a;
+            a = b;
+            b = temp;
+        }
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        b.prev = a;
+        a.child = b;
+        return a;
+    }
+
+    /**
+     * Detaches the subtree rooted at the given node from its parent and siblings.
+     */
+    private void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    /**
+     * Merges a list of sibling trees with the standard two-pass pairing: link pairs left to right, then link the pairs
+     * right to left. Iterative, so long sibling lists cannot overflow the stack.
+     *
+     * @param first the first sibling, or null.
+     * @return the root of the merged tree, or null if there were no siblings.
+     */
+    private Node<T> mergePairs(Node<T> first) {
+        Node<T> pairs = null; // Stack of linked pairs, chained through next
+        while (first != null) {
+            Node<T> a = first;
+            Node<T> b = a.next;
+            first = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+            }
+            Node<T> pair = link(a, b);
+            pair.next = pairs;
+            pairs = pair;
+        }
+        Node<T> result = null;
+        while (pairs != null) {
+            Node<T> pair = pairs;
+            pairs = pairs.next;
+            pair.next = null;
+            result = link(result, pair);
+        }
+        return result;
+    }
+
+    /**
+     * A heap node holding one item. {@code prev} points to the previous sibling, or to the parent for a first child.
+     */
+    private static class Node<T> {
+        private T item;
+        private double priority;
+        private Node<T> child;
+        private Node<T> next;
+        private Node<T> prev;
+    }
+}
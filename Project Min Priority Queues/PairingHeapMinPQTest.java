@@ -0,0 +1,59 @@
+package minpq;
+
+import java.util.Random;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks {@link PairingHeapMinPQ} against the reference model under a decrease-key heavy workload, where most priority
+ * changes cut a subtree out of the heap and link it back at the root, then checks priority changes on the root
+ * itself. Throws {@link AssertionError} on the first mismatch.
+ */
+public class PairingHeapMinPQTest {
+
+    public static void main(String[] args) {
+        MinPQModelChecker.run(PairingHeapMinPQ::new, new MinPQModelChecker.Priorities() {
+            @Override
+            public double added(Random random, double floor) {
+                // A small range makes ties common.
+                return random.nextInt(1000);
+            }
+
+            @Override
+            public double changed(Random random, double old, double floor) {
+                // Mostly decrease, sometimes to below the current minimum; occasionally increase.
+                return random.nextInt(6) > 0 ? Math.floor(old * random.nextDouble()) - random.nextInt(2)
+                        : old + random.nextInt(1000);
+            }
+        }, 38);
+        changeRoot();
+        System.out.println("PairingHeapMinPQTest passed");
+    }
+
+    /**
+     * The root has no parent to be cut from, so decreasing its priority must leave it in place, and increasing it must
+     * hand the minimum to the best of its children.
+     */
+    private static void changeRoot() {
+        PairingHeapMinPQ<Integer> pq = new PairingHeapMinPQ<>();
+        pq.add(0, 5);
+        pq.changePriority(0, 3);
+        check(pq.peekMin() == 0 && pq.size() == 1, "decreased the only item");
+        for (int i = 1; i <= 10; i += 1) {
+            pq.add(i, 10 + i);
+        }
+        pq.changePriority(0, 1);
+        check(pq.peekMin() == 0, "decreased root is no longer the minimum");
+        pq.changePriority(0, 1);
+        check(pq.peekMin() == 0, "unchanged root is no longer the minimum");
+        pq.changePriority(0, 15.5);
+        check(pq.peekMin() == 1, "increased root is still the minimum");
+        pq.changePriority(1, -1);
+        check(pq.peekMin() == 1, "decreased new root is no longer the minimum");
+        int[] order = {1, 2, 3, 4, 5, 0, 6, 7, 8, 9, 10};
+        for (int item : order) {
+            check(pq.removeMin() == item, "expected " + item);
+        }
+        check(pq.isEmpty(), "not empty after drain");
+    }
+}
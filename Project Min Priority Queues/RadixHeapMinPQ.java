@@ -0,0 +1,199 @@
+package minpq;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Monotone radix heap implementation of the {@link ExtrinsicMinPQ} interface for non-negative priorities. The bit
+ * patterns of non-negative doubles sort in the same order as their values, so each priority is bucketed by the highest
+ * bit in which it differs from the last removed minimum. An item only ever moves to lower buckets, so {@link #add} and
+ * {@link #changePriority} take O(1) time and {@link #removeMin} takes amortized time proportional to the 64-bit key
+ * width rather than to the number of items.
+ * <p>
+ * Priorities must never be smaller than the last removed minimum, as in Dijkstra's algorithm with non-negative edge
+ * weights; other priorities are rejected.
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ */
+public class RadixHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * Bucket 0 holds keys equal to {@code last}; bucket i holds keys whose highest differing bit is i - 1.
+     */
+    private final List<List<Entry<T>>> buckets;
+    /**
+     * {@link Map} of each item to its entry in the buckets.
+     */
+    private final Map<T, Entry<T>> entries;
+    /**
+     * Key of the last removed minimum; every key in the heap is at least this large.
+     */
+    private long last;
+    private HeapProbe probe = HeapProbe.NONE;
+
+    /**
+     * Constructs an empty instance.
+     */
+    public RadixHeapMinPQ() {
+        buckets = new ArrayList<>(Long.SIZE + 1);
+        for (int i = 0; i <= Long.SIZE; i += 1) {
+            buckets.add(new ArrayList<>());
+        }
+        entries = new HashMap<>();
+        last = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is negative, NaN, or smaller than the last removed minimum.
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (item == null) {
+            throw new IllegalArgumentException("Null item");
+        } else if (contains(item)) {
+            throw new IllegalArgumentException("Already contains " + item);
+        }
+        Entry<T> entry = new Entry<>(item, key(priority));
+        entries.put(item, entry);
+        insert(entry);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return entries.containsKey(item);
+    }
+
+    @Override
+    public T peekMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        List<Entry<T>> bucket = firstNonEmpty();
+        // Scan rather than redistribute, so that peeking does not raise the monotone lower bound.
+        Entry<T> min = bucket.get(0);
+        for (Entry<T> entry : bucket) {
+            probe.compared();
+            if (entry.key < min.key) {
+                min = entry;
+            }
+        }
+        return min.item;
+    }
+
+    @Override
+    public T removeMin() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("PQ is empty");
+        }
+        List<Entry<T>> zero = buckets.get(0);
+        if (zero.isEmpty()) {
+            List<Entry<T>> bucket = firstNonEmpty();
+            long min = bucket.get(0).key;
+            for (Entry<T> entry : bucket) {
+                probe.compared();
+                min = Math.min(min, entry.key);
+            }
+            last = min;
+            // Every entry in the bucket now differs from last in a lower bit, so each moves to a lower bucket.
+            List<Entry<T>> moving = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : moving) {
+                probe.moved();
+                insert(entry);
+            }
+        }
+        Entry<T> entry = zero.remove(zero.size() - 1);
+        entries.remove(entry.item);
+        return entry.item;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException if the priority is negative, NaN, or smaller than the last removed minimum.
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            throw new NoSuchElementException("PQ does not contain " + item);
+        }
+        long key = key(priority);
+        List<Entry<T>> bucket = buckets.get(entry.bucket);
+        Entry<T> moved = bucket.remove(bucket.size() - 1);
+        if (moved != entry) {
+            bucket.set(entry.index, moved);
+            moved.index = entry.index;
+        }
+        entry.key = key;
+        probe.moved();
+        insert(entry);
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Sets the probe to call for each key comparison in a bucket scan and each move of an entry to another bucket.
+     *
+     * @param probe the probe, or {@link HeapProbe#NONE}.
+     */
+    void setProbe(HeapProbe probe) {
+        this.probe = probe;
+    }
+
+    private void insert(Entry<T> entry) {
+        entry.bucket = entry.key == last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(entry.key ^ last);
+        List<Entry<T>> bucket = buckets.get(entry.bucket);
+        entry.index = bucket.size();
+        bucket.add(entry);
+    }
+
+    private List<Entry<T>> firstNonEmpty() {
+        for (List<Entry<T>> bucket : buckets) {
+            if (!bucket.isEmpty()) {
+                return bucket;
+            }
+        }
+        throw new NoSuchElementException("PQ is empty");
+    }
+
+    /**
+     * Returns the order-preserving bit pattern of the given priority.
+     *
+     * @throws IllegalArgumentException if the priority is negative, NaN, or smaller than the last removed minimum.
+     */
+    private long key(double priority) {
+        if (!(priority >= 0)) {
+            throw new IllegalArgumentException("Priority must be non-negative: " + priority);
+        }
+        long key = priority == 0 ? 0 : Double.doubleToLongBits(priority); // Maps -0.0 to 0
+        if (key < last) {
+            throw new IllegalArgumentException("Priority " + priority + " is below the last removed minimum "
+                    + Double.longBitsToDouble(last));
+        }
+        return key;
+    }
+
+    /**
+     * An item with its priority key and location in the buckets.
+     */
+    private static class Entry<T> {
+        private final T item;
+        private long key;
+        private int bucket;
+        private int index;
+
+        Entry(T item, long key) {
+            this.item = item;
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package minpq;
+
+import java.util.Random;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Checks {@link RadixHeapMinPQ} against the reference model under a monotone, decrease-key heavy workload like
+ * Dijkstra's algorithm: new and changed priorities are never below the last removed minimum, and many equal it,
+ * landing in bucket 0. Then checks that non-monotone and negative priorities are rejected without changing the heap.
+ * Throws {@link AssertionError} on the first mismatch.
+ */
+public class RadixHeapMinPQTest {
+
+    public static void main(String[] args) {
+        MinPQModelChecker.run(RadixHeapMinPQ::new, new MinPQModelChecker.Priorities() {
+            @Override
+            public double added(Random random, double floor) {
+                return floor + random.nextInt(100) * random.nextDouble();
+            }
+
+            @Override
+            public double changed(Random random, double old, double floor) {
+                // Mostly decrease to somewhere in [floor, old], often exactly floor; occasionally increase.
+                int choice = random.nextInt(5);
+                if (choice == 0) {
+                    return old + random.nextInt(100);
+                }
+                return choice < 3 ? floor : floor + (old - floor) * random.nextDouble();
+            }
+        }, 39);
+        rejectsNonMonotone();
+        System.out.println("RadixHeapMinPQTest passed");
+    }
+
+    /**
+     * Once 3 has been removed, adding or changing to anything below 3 must be rejected, while 3 itself is allowed.
+     */
+    private static void rejectsNonMonotone() {
+        RadixHeapMinPQ<Integer> pq = new RadixHeapMinPQ<>();
+        pq.add(0, 5);
+        pq.add(1, 3);
+        pq.add(2, 8);
+        check(pq.removeMin() == 1, "removeMin");
+        rejects(pq, 3, 2.999);
+        rejects(pq, 3, -1);
+        rejects(pq, 2, 2.999);
+        rejects(pq, 0, 0);
+        check(pq.peekMin() == 0, "rejected change moved an item");
+        pq.add(3, 3);
+        pq.changePriority(2, 3);
+        // Items 2 and 3 tie at the last removed minimum, so they may come out in either order.
+        check(pq.removeMin() + pq.removeMin() == 5 && pq.removeMin() == 0, "drain after rejections");
+        check(pq.isEmpty(), "not empty after drain");
+        rejects(pq, 4, 2);
+    }
+
+    /**
+     * Checks that adding the item with the priority, or changing it to the priority if present, is rejected.
+     */
+    private static void rejects(RadixHeapMinPQ<Integer> pq, int item, double priority) {
+        int size = pq.size();
+        try {
+            if (pq.contains(item)) {
+                pq.changePriority(item, priority);
+            } else {
+                pq.add(item, priority);
+            }
+            throw new AssertionError("accepted priority " + priority + " for " + item);
+        } catch (IllegalArgumentException e) {
+            check(pq.size() == size, "rejected priority changed the size");
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package minpq;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@link ExtrinsicMinPQ} decorator that records every successful call to its delegate in a compact binary trace, so
+ * that {@link TraceReplay} can later run exactly the same sequence of calls against other implementations.
+ * <p>
+ * A trace starts with the 4-byte {@link #MAGIC}, followed by one record per call: a 1-byte opcode, then for calls that
+ * take an item the item's id as an unsigned LEB128 varint, then for calls that take a priority the priority as an
+ * 8-byte double. Items are numbered 0, 1, 2, ... in order of first appearance, so ids stay small and the trace never
+ * contains the items themselves. Each priority queue starts with a {@link #BEGIN} record, so the queues created one
+ * after another by a {@link #recording} supplier can share one trace. The queues must not be used concurrently.
+ * <p>
+ * For example, to record the queues used while finding shortest paths:
+ * <pre>{@code
+ * try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream("dijkstra.trace")))) {
+ *     out.writeInt(TraceRecordingMinPQ.MAGIC);
+ *     new DijkstraSolver<>(graph, start, TraceRecordingMinPQ.recording(DoubleMapMinPQ::new, out));
+ * }
+ * }</pre>
+ *
+ * @param <T> the type of elements in this priority queue.
+ * @see ExtrinsicMinPQ
+ * @see TraceReplay
+ */
+public class TraceRecordingMinPQ<T> implements ExtrinsicMinPQ<T> {
+    /**
+     * First 4 bytes of every trace, "MPQT".
+     */
+    public static final int MAGIC = 0x4d505154;
+    /**
+     * Starts a new, empty priority queue. Item ids restart at 0.
+     */
+    public static final int BEGIN = 0;
+    /**
+     * {@link #add}: item id, priority.
+     */
+    public static final int ADD = 1;
+    /**
+     * {@link #addAll}: varint count, then count pairs of item id and priority.
+     */
+    public static final int ADD_ALL = 2;
+    /**
+     * {@link #contains}: item id.
+     */
+    public static final int CONTAINS = 3;
+    /**
+     * {@link #peekMin}: no operands.
+     */
+    public static final int PEEK_MIN = 4;
+    /**
+     * {@link #removeMin}: id of the removed item, so that a replay can tell when a different item with the same
+     * priority was removed.
+     */
+    public static final int REMOVE_MIN = 5;
+    /**
+     * {@link #changePriority}: item id, priority.
+     */
+    public static final int CHANGE_PRIORITY = 6;
+    /**
+     * {@link #size} and {@link #isEmpty}: no operands.
+     */
+    public static final int SIZE = 7;
+    private final ExtrinsicMinPQ<T> delegate;
+    private final DataOutput out;
+    /**
+     * {@link Map} of each item seen so far to its id in the trace.
+     */
+    private final Map<T, Integer> ids;
+
+    /**
+     * Constructs an instance recording calls to the given empty priority queue. Writes a {@link #BEGIN} record, but not
+     * the {@link #MAGIC}.
+     *
+     * @param delegate the empty priority queue to record.
+     * @param out      the destination of the trace.
+     * @throws UncheckedIOException if the trace cannot be written.
+     */
+    public TraceRecordingMinPQ(ExtrinsicMinPQ<T> delegate, DataOutput out) {
+        this.delegate = delegate;
+        this.out = out;
+        this.ids = new HashMap<>();
+        write(BEGIN);
+    }
+
+    /**
+     * Returns a supplier that records each priority queue from the given supplier to the same trace.
+     *
+     * @param pqs supplies the empty priority queues to record.
+     * @param out the destination of the trace.
+     * @param <T> the type of elements in the priority queues.
+     * @return a supplier of recording priority queues.
+     */
+    public static <T> Supplier<ExtrinsicMinPQ<T>> recording(Supplier<ExtrinsicMinPQ<T>> pqs, DataOutput out) {
+        return () -> new TraceRecordingMinPQ<>(pqs.get(), out);
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        delegate.add(item, priority);
+        write(ADD, item, priority);
+    }
+
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        delegate.addAll(priorities);
+        try {
+            out.writeByte(ADD_ALL);
+            writeVarint(priorities.size());
+            for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+                writeVarint(id(entry.getKey()));
+                out.writeDouble(entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean contains(T item) {
+        boolean result = delegate.contains(item);
+        write(CONTAINS, item);
+        return result;
+    }
+
+    @Override
+    public T peekMin() {
+        T result = delegate.peekMin();
+        write(PEEK_MIN);
+        return result;
+    }
+
+    @Override
+    public T removeMin() {
+        T result = delegate.removeMin();
+        write(REMOVE_MIN, result);
+        return result;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        delegate.changePriority(item, priority);
+        write(CHANGE_PRIORITY, item, priority);
+    }
+
+    @Override
+    public int size() {
+        int result = delegate.size();
+        write(SIZE);
+        return result;
+    }
+
+    /**
+     * Returns the id of the given item, assigning the next id if it has not been seen before.
+     */
+    private int id(T item) {
+        Integer id = ids.get(item);
+        if (id == null) {
+            id = ids.size();
+            ids.put(item, id);
+        }
+        return id;
+    }
+
+    private void write(int opcode) {
+        try {
+            out.writeByte(opcode);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(int opcode, T item) {
+        try {
+            out.writeByte(opcode);
+            writeVarint(id(item));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void write(int opcode, T item, double priority) {
+        try {
+            out.writeByte(opcode);
+            writeVarint(id(item));
+            out.writeDouble(priority);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the non-negative value 7 bits at a time, low bits first, setting the high bit of every byte but the last.
+     */
+    private void writeVarint(int value) throws IOException {
+        while ((value & ~0x7f) != 0) {
+            out.writeByte((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+}
@@ -0,0 +1,320 @@
+package minpq;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link ExtrinsicMinPQ} implementations by replaying traces recorded by {@link TraceRecordingMinPQ}, so that
+ * they run exactly the calls a real client made. Each argument is the path to a trace. Each trace is decoded into
+ * arrays before timing, replayed {@link #WARMUP} times untimed, then {@link #RUNS} times timed, and the median and
+ * fastest times are reported.
+ * <p>
+ * When items tie on priority, an implementation may remove a different item than the recorded one. The replay then
+ * swaps the two items' ids for the rest of the segment, which is equivalent since their priorities are equal, and
+ * reports the number of such swaps. Removing an item whose priority differs from the recorded one's is reported as
+ * incorrect. Implementations that reject a trace with {@link IllegalArgumentException}, such as {@link RadixHeapMinPQ}
+ * given priorities below the last removed minimum, are reported as unsupported, and any other exception as a failure.
+ */
+public class TraceReplay {
+    /**
+     * Number of untimed replays per implementation before measuring.
+     */
+    private static final int WARMUP = 5;
+    /**
+     * Number of timed replays per implementation.
+     */
+    private static final int RUNS = 10;
+    /**
+     * Combines the results of every call so that they cannot be optimized away.
+     */
+    private static volatile long sink;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java minpq.TraceReplay TRACE...");
+            System.exit(2);
+        }
+        Map<String, Supplier<ExtrinsicMinPQ<Integer>>> implementations = new LinkedHashMap<>();
+        implementations.put("DoubleMapMinPQ", DoubleMapMinPQ::new);
+        implementations.put("HeapMinPQ", HeapMinPQ::new);
+        implementations.put("OptimizedHeapMinPQ", OptimizedHeapMinPQ::new);
+        implementations.put("DaryHeapMinPQ(4)", () -> new DaryHeapMinPQ<>(4));
+        implementations.put("PairingHeapMinPQ", PairingHeapMinPQ::new);
+        implementations.put("RadixHeapMinPQ", RadixHeapMinPQ::new);
+        implementations.put("MinMaxHeapMinPQ", MinMaxHeapMinPQ::new);
+        for (String arg : args) {
+            Trace trace = Trace.read(Path.of(arg));
+            System.out.println(arg + ": " + trace);
+            for (Map.Entry<String, Supplier<ExtrinsicMinPQ<Integer>>> entry : implementations.entrySet()) {
+                System.out.println(measure(entry.getKey(), trace, entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Replays the trace against the implementation and returns a line summarizing the times.
+     */
+    private static String measure(String name, Trace trace, Supplier<ExtrinsicMinPQ<Integer>> pqs) {
+        long[] elapsed = new long[RUNS];
+        long swaps = 0;
+        try {
+            for (int w = 0; w < WARMUP; w += 1) {
+                replay(trace, pqs);
+            }
+            for (int r = 0; r < RUNS; r += 1) {
+                long start = System.nanoTime();
+                swaps = replay(trace, pqs);
+                elapsed[r] = System.nanoTime() - start;
+            }
+        } catch (IncorrectResultException e) {
+            return String.format("  %-20s INCORRECT: %s", name, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            // How implementations reject priorities they cannot hold, such as RadixHeapMinPQ given a non-monotone one.
+            return String.format("  %-20s unsupported: %s", name, e.getMessage());
+        } catch (RuntimeException e) {
+            return String.format("  %-20s FAILED: %s", name, e);
+        }
+        Arrays.sort(elapsed);
+        return String.format("  %-20s median %9.2f ms  min %9.2f ms  %6.1f ns/call%s", name,
+                elapsed[RUNS / 2] / 1e6, elapsed[0] / 1e6, (double) elapsed[RUNS / 2] / Math.max(1, trace.calls),
+                swaps > 0 ? "  " + swaps + " tie swaps" : "");
+    }
+
+    /**
+     * Runs every call in the trace once.
+     *
+     * @param trace the decoded trace.
+     * @param pqs   supplies an empty priority queue for each segment of the trace.
+     * @return the number of times a different item with the same priority as the recorded one was removed.
+     * @throws IncorrectResultException if an item with a different priority than the recorded one was removed.
+     */
+    private static long replay(Trace trace, Supplier<ExtrinsicMinPQ<Integer>> pqs) {
+        byte[] opcodes = trace.opcodes;
+        int[] ids = trace.ids;
+        double[] priorities = trace.priorities;
+        Integer[] items = trace.items;
+        // alias[t] is the item standing in for trace id t, and inverse is its inverse.
+        int[] alias = new int[items.length];
+        int[] inverse = new int[items.length];
+        // The current priority of each trace id, to tell ties from wrong results.
+        double[] current = new double[items.length];
+        ExtrinsicMinPQ<Integer> pq = null;
+        long swaps = 0;
+        long result = 0;
+        for (int i = 0; i < trace.length; i += 1) {
+            switch (opcodes[i]) {
+                case TraceRecordingMinPQ.BEGIN:
+                    pq = pqs.get();
+                    for (int t = 0; t < ids[i]; t += 1) {
+                        alias[t] = t;
+                        inverse[t] = t;
+                    }
+                    break;
+                case TraceRecordingMinPQ.ADD:
+                    pq.add(items[alias[ids[i]]], priorities[i]);
+                    current[ids[i]] = priorities[i];
+                    break;
+                case TraceRecordingMinPQ.ADD_ALL:
+                    Map<Integer, Double> batch = new LinkedHashMap<>();
+                    for (int j = i + 1; j <= i + ids[i]; j += 1) {
+                        batch.put(items[alias[ids[j]]], priorities[j]);
+                        current[ids[j]] = priorities[j];
+                    }
+                    pq.addAll(batch);
+                    i += ids[i];
+                    break;
+                case TraceRecordingMinPQ.CONTAINS:
+                    result += pq.contains(items[alias[ids[i]]]) ? 1 : 0;
+                    break;
+                case TraceRecordingMinPQ.PEEK_MIN:
+                    result += pq.peekMin();
+                    break;
+                case TraceRecordingMinPQ.REMOVE_MIN:
+                    int removed = pq.removeMin();
+                    int expected = ids[i];
+                    int actual = inverse[removed];
+                    if (actual != expected) {
+                        if (Double.compare(current[actual], current[expected]) != 0) {
+                            throw new IncorrectResultException("removed priority " + current[actual]
+                                    + " where the recording removed " + current[expected] + " at call " + i);
+                        }
+                        int item = alias[expected];
+                        alias[expected] = removed;
+                        inverse[removed] = expected;
+                        alias[actual] = item;
+                        inverse[item] = actual;
+                        swaps += 1;
+                    }
+                    break;
+                case TraceRecordingMinPQ.CHANGE_PRIORITY:
+                    pq.changePriority(items[alias[ids[i]]], priorities[i]);
+                    current[ids[i]] = priorities[i];
+                    break;
+                case TraceRecordingMinPQ.SIZE:
+                    result += pq.size();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + opcodes[i]);
+            }
+        }
+        sink += result;
+        return swaps;
+    }
+
+    /**
+     * Thrown when an implementation removes an item whose priority differs from that of the recorded item.
+     */
+    private static class IncorrectResultException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        IncorrectResultException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * A trace decoded into parallel arrays, one element per record. A {@link TraceRecordingMinPQ#BEGIN} record holds
+     * the number of item ids in its segment, and a {@link TraceRecordingMinPQ#ADD_ALL} record holds its count and is
+     * followed by one element per added item.
+     */
+    private static class Trace {
+        private byte[] opcodes = new byte[1024];
+        private int[] ids = new int[1024];
+        private double[] priorities = new double[1024];
+        private int length;
+        /**
+         * Number of calls, counting each ADD_ALL once.
+         */
+        private long calls;
+        private int segments;
+        /**
+         * Number of records with each opcode.
+         */
+        private final long[] counts = new long[TraceRecordingMinPQ.SIZE + 1];
+        /**
+         * The items standing in for trace ids, boxed ahead of time so that replays do not allocate them.
+         */
+        private Integer[] items;
+
+        /**
+         * Reads and decodes the trace at the given path, ignoring an incomplete last record.
+         */
+        static Trace read(Path path) throws IOException {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (in.remaining() < Integer.BYTES || in.getInt() != TraceRecordingMinPQ.MAGIC) {
+                throw new IOException(path + " is not a priority queue trace");
+            }
+            Trace trace = new Trace();
+            // Index of the BEGIN record of the current segment, which counts the ids used in the segment.
+            int begin = -1;
+            int complete = 0;
+            try {
+                while (in.hasRemaining()) {
+                    int opcode = in.get();
+                    if (opcode == TraceRecordingMinPQ.BEGIN) {
+                        begin = trace.length;
+                        trace.segments += 1;
+                    } else if (begin < 0) {
+                        throw new IOException(path + " does not start with a BEGIN record");
+                    }
+                    switch (opcode) {
+                        case TraceRecordingMinPQ.BEGIN:
+                        case TraceRecordingMinPQ.PEEK_MIN:
+                        case TraceRecordingMinPQ.SIZE:
+                            trace.append(opcode, 0, 0);
+                            break;
+                        case TraceRecordingMinPQ.ADD:
+                        case TraceRecordingMinPQ.CHANGE_PRIORITY:
+                            trace.append(opcode, readVarint(in), in.getDouble());
+                            break;
+                        case TraceRecordingMinPQ.CONTAINS:
+                        case TraceRecordingMinPQ.REMOVE_MIN:
+                            trace.append(opcode, readVarint(in), 0);
+                            break;
+                        case TraceRecordingMinPQ.ADD_ALL:
+                            int count = readVarint(in);
+                            trace.append(opcode, count, 0);
+                            for (int j = 0; j < count; j += 1) {
+                                trace.append(opcode, readVarint(in), in.getDouble());
+                            }
+                            break;
+                        default:
+                            throw new IOException("Unknown opcode " + opcode + " in " + path);
+                    }
+                    int first = opcode == TraceRecordingMinPQ.ADD_ALL ? complete + 1 : complete;
+                    if (opcode != TraceRecordingMinPQ.BEGIN) {
+                        for (int j = first; j < trace.length; j += 1) {
+                            trace.ids[begin] = Math.max(trace.ids[begin], trace.ids[j] + 1);
+                        }
+                        trace.calls += 1;
+                    }
+                    trace.counts[opcode] += 1;
+                    complete = trace.length;
+                }
+            } catch (BufferUnderflowException e) {
+                // The recording was cut off in the middle of a record; drop the partial record.
+                trace.length = complete;
+            }
+            int maxIds = 0;
+            for (int i = 0; i < trace.length; i += 1) {
+                if (trace.opcodes[i] == TraceRecordingMinPQ.BEGIN) {
+                    maxIds = Math.max(maxIds, trace.ids[i]);
+                }
+            }
+            trace.items = new Integer[maxIds];
+            for (int t = 0; t < maxIds; t += 1) {
+                trace.items[t] = t;
+            }
+            return trace;
+        }
+
+        private void append(int opcode, int id, double priority) {
+            if (length == opcodes.length) {
+                opcodes = Arrays.copyOf(opcodes, length * 2);
+                ids = Arrays.copyOf(ids, length * 2);
+                priorities = Arrays.copyOf(priorities, length * 2);
+            }
+            opcodes[length] = (byte) opcode;
+            ids[length] = id;
+            priorities[length] = priority;
+            length += 1;
+        }
+
+        /**
+         * Reads a non-negative value written 7 bits at a time, low bits first.
+         */
+        private static int readVarint(ByteBuffer in) throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                int b = in.get();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint");
+        }
+
+        @Override
+        public String toString() {
+            List<String> names = List.of("begin", "add", "addAll", "contains", "peekMin", "removeMin",
+                    "changePriority", "size");
+            StringJoiner result = new StringJoiner(", ", calls + " calls in " + segments + " priority queues (", ")");
+            for (int opcode = 1; opcode < counts.length; opcode += 1) {
+                if (counts[opcode] > 0) {
+                    result.add(names.get(opcode) + " " + counts[opcode]);
+                }
+            }
+            return result.toString();
+        }
+    }
+}
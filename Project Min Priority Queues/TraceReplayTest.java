@@ -0,0 +1,124 @@
+package minpq;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static minpq.MinPQModelChecker.check;
+
+/**
+ * Records traces with {@link TraceRecordingMinPQ} and replays them with {@link TraceReplay}, checking that every
+ * implementation replays a trace full of tied priorities correctly, that {@link RadixHeapMinPQ} is reported as
+ * unsupported only when the priorities are not monotone, and that a trace cut off mid-record still replays. Throws
+ * {@link AssertionError} on the first mismatch.
+ */
+public class TraceReplayTest {
+    /**
+     * Number of calls recorded for each priority queue.
+     */
+    private static final int CALLS = 2000;
+
+    public static void main(String[] args) throws IOException {
+        Random random = new Random(50);
+        String ties = replay(record(random, false));
+        check(ties.contains("tie swaps"), "no tie swaps in a trace of tied priorities:\n" + ties);
+        for (String line : ties.split("\n")) {
+            if (line.contains("RadixHeapMinPQ")) {
+                check(line.contains("unsupported"), "replayed a non-monotone trace on a radix heap: " + line);
+            } else if (line.startsWith(" ")) {
+                check(line.contains("median"), "failed to replay: " + line);
+            }
+        }
+        String monotone = replay(record(random, true));
+        for (String line : monotone.split("\n")) {
+            check(!line.startsWith(" ") || line.contains("median"), "failed to replay a monotone trace: " + line);
+        }
+        System.out.println("TraceReplayTest passed");
+    }
+
+    /**
+     * Records two priority queues, one after the other, each running {@link #CALLS} random calls with few distinct
+     * priorities, then appends the first byte of an ADD record to simulate a recording that was cut off.
+     *
+     * @param monotone whether new and changed priorities are kept at or above the last removed minimum.
+     */
+    private static Path record(Random random, boolean monotone) throws IOException {
+        Path path = Files.createTempFile("minpq-test", ".trace");
+        path.toFile().deleteOnExit();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(TraceRecordingMinPQ.MAGIC);
+            Supplier<ExtrinsicMinPQ<Integer>> pqs = TraceRecordingMinPQ.recording(DoubleMapMinPQ::new, out);
+            for (int segment = 0; segment < 2; segment += 1) {
+                ExtrinsicMinPQ<Integer> pq = pqs.get();
+                Map<Integer, Double> expected = new HashMap<>();
+                double floor = 0;
+                int next = 0;
+                for (int call = 0; call < CALLS; call += 1) {
+                    int op = random.nextInt(10);
+                    if (op < 4 || expected.isEmpty()) {
+                        double priority = priority(random, floor, monotone);
+                        pq.add(next, priority);
+                        expected.put(next, priority);
+                        next += 1;
+                    } else if (op == 4) {
+                        Map<Integer, Double> batch = new LinkedHashMap<>();
+                        for (int i = 0; i < 5; i += 1) {
+                            batch.put(next, priority(random, floor, monotone));
+                            next += 1;
+                        }
+                        pq.addAll(batch);
+                        expected.putAll(batch);
+                    } else if (op < 7) {
+                        int item = random.nextInt(next);
+                        if (expected.containsKey(item)) {
+                            double priority = priority(random, floor, monotone);
+                            pq.changePriority(item, priority);
+                            expected.put(item, priority);
+                        } else {
+                            // Keep to one recorded call per step.
+                            check(pq.size() == expected.size(), "size");
+                        }
+                    } else {
+                        floor = expected.remove(pq.removeMin());
+                    }
+                }
+            }
+        }
+        Files.write(path, new byte[]{TraceRecordingMinPQ.ADD}, StandardOpenOption.APPEND);
+        return path;
+    }
+
+    /**
+     * Returns one of 10 consecutive integer priorities, starting from the floor if monotone and from 0 otherwise.
+     */
+    private static double priority(Random random, double floor, boolean monotone) {
+        return (monotone ? floor : 0) + random.nextInt(10);
+    }
+
+    /**
+     * Replays the trace and returns what {@link TraceReplay} printed.
+     */
+    private static String replay(Path path) throws IOException {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(captured, true));
+        try {
+            TraceReplay.main(new String[]{path.toString()});
+        } finally {
+            System.setOut(stdout);
+        }
+        String result = captured.toString();
+        check(result.startsWith(path + ": " + 2 * CALLS + " calls in 2 priority queues"), "header: " + result);
+        return result;
+    }
+}
@@ -1,8 +1,11 @@
 package minpq;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 /**
  * Unsorted array (or {@link ArrayList}) implementation of the {@link ExtrinsicMinPQ} interface.
@@ -31,6 +34,25 @@ public class UnsortedArrayMinPQ<T> implements ExtrinsicMinPQ<T> {
         items.add(new PriorityNode<T>(item, priority));
     }
 
+    @Override
+    public void addAll(Map<T, Double> priorities) {
+        // Check against all existing items at once rather than with a linear contains per item.
+        Set<T> existing = new HashSet<>();
+        for (PriorityNode<T> node : items) {
+            existing.add(node.item());
+        }
+        for (T item : priorities.keySet()) {
+            if (item == null) {
+                throw new IllegalArgumentException("Null item");
+            } else if (existing.contains(item)) {
+                throw new IllegalArgumentException("Already contains " + item);
+            }
+        }
+        for (Map.Entry<T, Double> entry : priorities.entrySet()) {
+            items.add(new PriorityNode<T>(entry.getKey(), entry.getValue()));
+        }
+    }
+
     @Override
     public boolean contains(T item) {
         PriorityNode <T> contains;
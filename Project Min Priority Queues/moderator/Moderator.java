@@ -1,11 +1,17 @@
 package minpq.moderator;
 
-import minpq.DoubleMapMinPQ;
+import minpq.BlockingExtrinsicMinPQ;
+import minpq.BucketMinPQ;
 import minpq.ExtrinsicMinPQ;
+import minpq.TraceRecordingMinPQ;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.util.Random;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Scanner;
 import java.util.zip.GZIPInputStream;
 
@@ -17,58 +23,107 @@ class Moderator {
      * Path to the toxic content.
      */
     private static final String PATH = "data/toxic.tsv.gz";
+    /**
+     * Number of toxicity buckets in the priority queue.
+     */
+    private static final int BUCKETS = 1000;
+    /**
+     * Maximum number of comments waiting for review before ingest blocks.
+     */
+    private static final int CAPACITY = 100;
+    /**
+     * Number of comments read before they are added to the priority queue together.
+     */
+    private static final int BATCH_SIZE = 10;
 
-    public static void main(String[] args) throws IOException {
+    public static void main(String[] args) throws IOException, InterruptedException {
         Scanner scanner = new Scanner(new GZIPInputStream(new FileInputStream(PATH)));
         scanner.nextLine(); // Skip header
 
-        ExtrinsicMinPQ<String> pq = new DoubleMapMinPQ<>();
-        Random random = new Random();
-        addComments(pq, scanner, random.nextInt(100));
-        Scanner stdin = new Scanner(System.in);
-        while (!pq.isEmpty()) {
-            System.out.println();
-            System.out.println(pq.removeMin());
-            System.out.print("[Y]es/[N]o: ");
-            String response = null;
-            while (response == null && stdin.hasNextLine()) {
-                response = stdin.nextLine();
-                switch (response.strip().toLowerCase()) {
-                    case "y":
-                    case "yes":
-                    case "n":
-                    case "no":
-                        // In a real system, write the response to the database.
-                        break;
-                    default:
-                        response = null;
-                        System.out.print("[Y]es/[N]o: ");
-                        break;
+        // Toxicity is in [0, 1], so negated weights are in [-1, 0]; ranking to 1/1000 is as precise as reviewers need.
+        ExtrinsicMinPQ<String> buckets = new BucketMinPQ<>(-1.0, 0.0, BUCKETS);
+        // Run with -Dminpq.trace=FILE to record every priority queue call for minpq.TraceReplay. Calls reach the
+        // buckets one at a time under the blocking queue's lock, so the trace is a single sequence.
+        String tracePath = System.getProperty("minpq.trace");
+        DataOutputStream trace = null;
+        if (tracePath != null) {
+            trace = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tracePath)));
+            trace.writeInt(TraceRecordingMinPQ.MAGIC);
+            buckets = new TraceRecordingMinPQ<>(buckets, trace);
+        }
+        try {
+            BlockingExtrinsicMinPQ<String> pq = new BlockingExtrinsicMinPQ<>(buckets, CAPACITY);
+            // Ingest streams comments on its own thread, blocking whenever reviewers fall CAPACITY comments behind.
+            Thread ingest = new Thread(() -> addComments(pq, scanner), "ingest");
+            ingest.setDaemon(true);
+            ingest.start();
+            Scanner stdin = new Scanner(System.in);
+            while (true) {
+                String comment = pq.takeMin();
+                if (comment == null) {
+                    // Ingest closed the queue and every comment has been reviewed.
+                    break;
+                }
+                System.out.println();
+                System.out.println(comment);
+                System.out.print("[Y]es/[N]o: ");
+                String response = null;
+                while (response == null && stdin.hasNextLine()) {
+                    response = stdin.nextLine();
+                    switch (response.strip().toLowerCase()) {
+                        case "y":
+                        case "yes":
+                        case "n":
+                        case "no":
+                            // In a real system, write the response to the database.
+                            break;
+                        default:
+                            response = null;
+                            System.out.print("[Y]es/[N]o: ");
+                            break;
+                    }
                 }
             }
-            if (random.nextBoolean()) {
-                addComments(pq, scanner, random.nextInt(4));
+        } finally {
+            // Flush what was recorded even if the session ends with an exception.
+            if (trace != null) {
+                trace.close();
             }
         }
     }
 
     /**
-     * Adds up to <i>N</i> comments from the scanner to the priority queue with negated weights.
+     * Adds every comment from the scanner to the priority queue with negated weights in batches of
+     * {@link #BATCH_SIZE}, waiting for room as needed, and then closes the priority queue. Comments already waiting
+     * for review are skipped.
      *
      * @param pq      the destination priority queue.
      * @param scanner the input scanner.
-     * @param n       the number of comments to read from the scanner.
      */
-    private static void addComments(ExtrinsicMinPQ<String> pq, Scanner scanner, int n) {
-        int i = 0;
-        for (; i < n && scanner.hasNextLine(); i += 1) {
-            Scanner line = new Scanner(scanner.nextLine()).useDelimiter("\t");
-            double toxicity = line.nextDouble();
-            // Replace all but the first letter in each word.
-            String comment = line.next().replaceAll("\\B[a-zA-Z]", "*");
-            // Prioritize most toxic content first by negating the weight.
-            pq.add(comment, -toxicity);
+    private static void addComments(BlockingExtrinsicMinPQ<String> pq, Scanner scanner) {
+        try {
+            Map<String, Double> batch = new LinkedHashMap<>();
+            while (scanner.hasNextLine()) {
+                Scanner line = new Scanner(scanner.nextLine()).useDelimiter("\t");
+                double toxicity = line.nextDouble();
+                // Replace all but the first letter in each word.
+                String comment = line.next().replaceAll("\\B[a-zA-Z]", "*");
+                // Prioritize most toxic content first by negating the weight. Only this thread adds, so the comment
+                // cannot be added by someone else between the check and the put.
+                if (!pq.contains(comment)) {
+                    batch.putIfAbsent(comment, -toxicity);
+                }
+                if (batch.size() == BATCH_SIZE) {
+                    pq.putAll(batch);
+                    batch = new LinkedHashMap<>();
+                }
+            }
+            pq.putAll(batch);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Even if ingest fails, reviewers must not wait forever for comments that will never arrive.
+            pq.close();
         }
-        System.out.println(i + " comments added to pq");
     }
 }
@@ -1,15 +1,25 @@
 package seamcarving;
 
+import graphs.IndexedGraph;
 import graphs.shortestpaths.DijkstraSolver;
+import graphs.shortestpaths.ShortestPathSolver;
+import minpq.ExtrinsicMinPQ;
+import minpq.RadixHeapMinPQ;
+import minpq.TraceRecordingMinPQ;
 import seamcarving.energy.DualGradientEnergyFunction;
 import seamcarving.energy.EnergyFunction;
 import seamcarving.seamfinding.AdjacencyListSeamFinder;
+import seamcarving.seamfinding.Node;
 import seamcarving.seamfinding.SeamFinder;
 
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Supplier;
 
 /**
  * Seam carving, an approach for content-aware image resizing. Given a {@link Picture}, an {@link EnergyFunction}, and a
@@ -65,32 +75,51 @@ public class SeamCarver {
 
     public static void main(String[] args) throws IOException {
         EnergyFunction f = new DualGradientEnergyFunction();
-        SeamFinder seamFinder = new AdjacencyListSeamFinder(DijkstraSolver::new);
-        SeamCarver seamCarver = new SeamCarver(new File(INPUT_PATH), f, seamFinder);
-
-        int originalWidth = seamCarver.picture.width();
-        int originalHeight = seamCarver.picture.height();
-        System.out.println("Current size is " + originalWidth + "x" + originalHeight);
-        int newWidth = promptForSize("width", originalWidth);
-        int newHeight = promptForSize("height", originalHeight);
-
-        System.out.print("Reducing width... ");
-        for (int i = 0; i < originalWidth - newWidth; i++) {
-            seamCarver.removeVertical();
-            if (i % 10 == 0) {
-                System.out.print(originalWidth - i + " ");
-            }
+        // AdjacencyListSeamFinder numbers its pixels, so Dijkstra's algorithm can keep its state in arrays.
+        ShortestPathSolver.Constructor<Node> sps =
+                (graph, start) -> new DijkstraSolver<>((IndexedGraph<Node>) graph, start);
+        // Run with -Dminpq.trace=FILE to record every priority queue call for minpq.TraceReplay.
+        String tracePath = System.getProperty("minpq.trace");
+        DataOutputStream trace = null;
+        if (tracePath != null) {
+            trace = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tracePath)));
+            trace.writeInt(TraceRecordingMinPQ.MAGIC);
+            // Energies are non-negative, so Dijkstra's extracted priorities never decrease and a radix heap applies.
+            Supplier<ExtrinsicMinPQ<Node>> pqs = TraceRecordingMinPQ.recording(RadixHeapMinPQ::new, trace);
+            sps = (graph, start) -> new DijkstraSolver<>(graph, start, pqs);
         }
-        System.out.println();
-
-        System.out.print("Reducing height... ");
-        for (int i = 0; i < originalHeight - newHeight; i++) {
-            seamCarver.removeHorizontal();
-            if (i % 10 == 0) {
-                System.out.print(originalHeight - i  + " ");
+        try {
+            SeamFinder seamFinder = new AdjacencyListSeamFinder(sps);
+            SeamCarver seamCarver = new SeamCarver(new File(INPUT_PATH), f, seamFinder);
+
+            int originalWidth = seamCarver.picture.width();
+            int originalHeight = seamCarver.picture.height();
+            System.out.println("Current size is " + originalWidth + "x" + originalHeight);
+            int newWidth = promptForSize("width", originalWidth);
+            int newHeight = promptForSize("height", originalHeight);
+
+            System.out.print("Reducing width... ");
+            for (int i = 0; i < originalWidth - newWidth; i++) {
+                seamCarver.removeVertical();
+                if (i % 10 == 0) {
+                    System.out.print(originalWidth - i + " ");
+                }
+            }
+            System.out.println();
+
+            System.out.print("Reducing height... ");
+            for (int i = 0; i < originalHeight - newHeight; i++) {
+                seamCarver.removeHorizontal();
+                if (i % 10 == 0) {
+                    System.out.print(originalHeight - i  + " ");
+                }
+            }
+            seamCarver.picture().save(new File(OUTPUT_PATH));
+        } finally {
+            if (trace != null) {
+                trace.close();
             }
         }
-        seamCarver.picture().save(new File(OUTPUT_PATH));
     }
 
     /**
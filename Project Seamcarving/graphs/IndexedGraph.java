@@ -0,0 +1,28 @@
+package graphs;
+
+import graphs.shortestpaths.DijkstraSolver;
+
+/**
+ * Directed, edge-weighted graph whose vertices are numbered densely from 0, so that searches can keep their state in
+ * arrays indexed by vertex number instead of maps keyed by vertex.
+ *
+ * @param <V> the type of vertices.
+ * @see Graph
+ * @see DijkstraSolver
+ */
+public interface IndexedGraph<V> extends Graph<V> {
+    /**
+     * Returns the number of the given vertex, unique among all vertices and in the range [0, {@link #vertexCount()}).
+     *
+     * @param vertex the vertex of interest.
+     * @return the number of the vertex.
+     */
+    int index(V vertex);
+
+    /**
+     * Returns the number of vertices in this graph.
+     *
+     * @return the number of vertices in this graph.
+     */
+    int vertexCount();
+}
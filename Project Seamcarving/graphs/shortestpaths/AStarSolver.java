@@ -6,6 +6,7 @@ import minpq.DoubleMapMinPQ;
 import minpq.ExtrinsicMinPQ;
 
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * A* search implementation for single-pair shortest paths in an {@link AStarGraph}.
@@ -27,11 +28,24 @@ public class AStarSolver<V> {
      * @param goal  the goal vertex.
      */
     public AStarSolver(AStarGraph<V> graph, V start, V goal) {
+        this(graph, start, goal, DoubleMapMinPQ::new);
+    }
+
+    /**
+     * Constructs a new instance by executing A* search on the graph from the start to the goal, using the given
+     * {@link ExtrinsicMinPQ} implementation.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     * @param goal  the goal vertex.
+     * @param pqs   supplies the empty priority queue to use for the search.
+     */
+    public AStarSolver(AStarGraph<V> graph, V start, V goal, Supplier<ExtrinsicMinPQ<V>> pqs) {
         this.edgeTo = new HashMap<>();
         this.distTo = new HashMap<>();
         this.start = start;
         this.goal = goal;
-        ExtrinsicMinPQ<V> pq = new DoubleMapMinPQ<>();
+        ExtrinsicMinPQ<V> pq = pqs.get();
         pq.add(start, 0.0);
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
@@ -2,10 +2,14 @@ package graphs.shortestpaths;
 
 import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 import minpq.DoubleMapMinPQ;
 import minpq.ExtrinsicMinPQ;
+import minpq.IndexedIntMinPQ;
 
 import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 /**
  * Dijkstra's algorithm implementation of the {@link ShortestPathSolver} interface.
@@ -14,8 +18,18 @@ import java.util.*;
  * @see ShortestPathSolver
  */
 public class DijkstraSolver<V> implements ShortestPathSolver<V> {
+    /**
+     * Last edge on the shortest path to each vertex, or null when the search used vertex indices.
+     */
     private final Map<V, Edge<V>> edgeTo;
-    private final Map<V, Double> distTo;
+    /**
+     * Last edge on the shortest path to each vertex index, or null when the search used maps.
+     */
+    private final Edge<V>[] edgeToIndex;
+    /**
+     * Maps each vertex to its index in {@code edgeToIndex}, or null when the search used maps.
+     */
+    private final ToIntFunction<V> index;
 
     /**
      * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start.
@@ -24,9 +38,23 @@ public class DijkstraSolver<V> implements ShortestPathSolver<V> {
      * @param start the start vertex.
      */
     public DijkstraSolver(Graph<V> graph, V start) {
+        this(graph, start, DoubleMapMinPQ::new);
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start, using the given
+     * {@link ExtrinsicMinPQ} implementation.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     * @param pqs   supplies the empty priority queue to use for the search.
+     */
+    public DijkstraSolver(Graph<V> graph, V start, Supplier<ExtrinsicMinPQ<V>> pqs) {
         this.edgeTo = new HashMap<>();
-        this.distTo = new HashMap<>();
-        ExtrinsicMinPQ<V> pq = new DoubleMapMinPQ<>();
+        this.edgeToIndex = null;
+        this.index = null;
+        Map<V, Double> distTo = new HashMap<>();
+        ExtrinsicMinPQ<V> pq = pqs.get();
         pq.add(start, 0.0);
         edgeTo.put(start, null);
         distTo.put(start, 0.0);
@@ -49,16 +77,79 @@ public class DijkstraSolver<V> implements ShortestPathSolver<V> {
         }
     }
 
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start, using an
+     * {@link IndexedIntMinPQ} and arrays over the graph's vertex numbers instead of maps keyed by vertex.
+     *
+     * @param graph the input graph.
+     * @param start the start vertex.
+     */
+    public DijkstraSolver(IndexedGraph<V> graph, V start) {
+        this(graph, start, graph::index, graph.vertexCount());
+    }
+
+    /**
+     * Constructs a new instance by executing Dijkstra's algorithm on the graph from the start, using an
+     * {@link IndexedIntMinPQ} and arrays over vertex indices instead of maps keyed by vertex. Relaxing an edge reads
+     * and writes only primitive arrays, so it neither hashes nor allocates.
+     *
+     * @param graph       the input graph.
+     * @param start       the start vertex.
+     * @param index       maps each vertex to a unique index in the range [0, vertexCount).
+     * @param vertexCount the number of vertices that index can return.
+     */
+    @SuppressWarnings("unchecked")
+    public DijkstraSolver(Graph<V> graph, V start, ToIntFunction<V> index, int vertexCount) {
+        this.edgeTo = null;
+        this.index = index;
+        this.edgeToIndex = (Edge<V>[]) new Edge<?>[vertexCount];
+        double[] dist = new double[vertexCount];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        IndexedIntMinPQ pq = new IndexedIntMinPQ(vertexCount);
+        V[] vertices = (V[]) new Object[vertexCount];
+        int s = index.applyAsInt(start);
+        vertices[s] = start;
+        dist[s] = 0.0;
+        pq.add(s, 0.0);
+        while (!pq.isEmpty()) {
+            int f = pq.removeMin();
+            double fromDist = dist[f];
+            for (Edge<V> e : graph.neighbors(vertices[f])) {
+                int t = index.applyAsInt(e.to);
+                double newDist = fromDist + e.weight;
+                if (newDist < dist[t]) {
+                    edgeToIndex[t] = e;
+                    dist[t] = newDist;
+                    if (pq.contains(t)) {
+                        pq.changePriority(t, newDist);
+                    } else {
+                        vertices[t] = e.to;
+                        pq.add(t, newDist);
+                    }
+                }
+            }
+        }
+    }
+
     @Override
     public List<V> solution(V goal) {
         List<V> path = new ArrayList<>();
         V curr = goal;
         path.add(curr);
-        while (edgeTo.get(curr) != null) {
-            curr = edgeTo.get(curr).from;
+        Edge<V> e = edgeTo(curr);
+        while (e != null) {
+            curr = e.from;
             path.add(curr);
+            e = edgeTo(curr);
         }
         Collections.reverse(path);
         return path;
     }
+
+    /**
+     * Returns the last edge on the shortest path to the vertex, or null if the vertex is the start or unreachable.
+     */
+    private Edge<V> edgeTo(V vertex) {
+        return edgeTo != null ? edgeTo.get(vertex) : edgeToIndex[index.applyAsInt(vertex)];
+    }
 }
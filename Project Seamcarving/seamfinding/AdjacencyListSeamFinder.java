@@ -2,6 +2,7 @@ package seamcarving.seamfinding;
 
 import graphs.Edge;
 import graphs.Graph;
+import graphs.IndexedGraph;
 import graphs.shortestpaths.ShortestPathSolver;
 import seamcarving.Picture;
 import seamcarving.SeamCarver;
@@ -49,12 +50,13 @@ public class AdjacencyListSeamFinder implements SeamFinder {
     }
 
     /**
-     * Adjacency list graph of {@link Pixel} vertices and {@link EnergyFunction}-weighted edges.
+     * Adjacency list graph of {@link Pixel} vertices and {@link EnergyFunction}-weighted edges. The source and sink are
+     * numbered 0 and 1, and each pixel is numbered after them in column-major order.
      *
      * @see Pixel
      * @see EnergyFunction
      */
-    private static class PixelGraph implements Graph<Node> {
+    private static class PixelGraph implements IndexedGraph<Node> {
         /**
          * The {@link Pixel} vertices in the {@link Picture}.
          */
@@ -130,6 +132,22 @@ public class AdjacencyListSeamFinder implements SeamFinder {
             return node.neighbors(picture, f);
         }
 
+        @Override
+        public int index(Node node) {
+            if (node == source) {
+                return 0;
+            } else if (node == sink) {
+                return 1;
+            }
+            Pixel pixel = (Pixel) node;
+            return 2 + pixel.x * picture.height() + pixel.y;
+        }
+
+        @Override
+        public int vertexCount() {
+            return 2 + picture.width() * picture.height();
+        }
+
         /**
          * A pixel in the {@link PixelGraph} representation of the {@link Picture} with {@link EnergyFunction}-weighted
          * edges to neighbors.